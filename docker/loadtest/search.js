@@ -0,0 +1,37 @@
+/*
+ * Load test of the search endpoints, run once per thread mode with the same settings and compare
+ * http_reqs (throughput) and http_req_duration (latency):
+ *
+ *   k6 run -e BASE_URL=http://localhost:8080 -e RATE=300 docker/loadtest/search.js
+ */
+import http from 'k6/http';
+import {check} from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SUBJECTS = ['Mathematik', 'Deutsch', 'Englisch', 'Biologie', 'Physik', 'Geschichte'];
+
+export const options = {
+	scenarios: {
+		search: {
+			executor: 'constant-arrival-rate',
+			rate: Number(__ENV.RATE || 200),
+			timeUnit: '1s',
+			duration: __ENV.DURATION || '2m',
+			preAllocatedVUs: 200,
+			maxVUs: 2000,
+		},
+	},
+	thresholds: {
+		http_req_failed: ['rate<0.01'],
+	},
+};
+
+export default function () {
+	const subject = SUBJECTS[Math.floor(Math.random() * SUBJECTS.length)];
+	const page = Math.floor(Math.random() * 3);
+	const search = http.get(`${BASE_URL}/api/search/most-relevant?subject=${encodeURIComponent(subject)}&page=${page}&size=20`, {tags: {name: 'most-relevant'}});
+	check(search, {'search 200': r => r.status === 200});
+
+	const filters = http.get(`${BASE_URL}/api/filters`, {tags: {name: 'filters'}});
+	check(filters, {'filters 200': r => r.status === 200});
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compares a JMH json result with the stored baseline and fails if a benchmark got slower than the threshold.
+ * Benchmarks missing in either file are listed, but not compared.
+ * <p>
+ * Arguments: baseline file, result file, threshold (e.g. 0.2 for 20%)
+ */
+public class BaselineComparison {
+
+	public static void main(String[] args) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		Map<String, JsonNode> baseline = read(mapper, new File(args[0]));
+		Map<String, JsonNode> result = read(mapper, new File(args[1]));
+		double threshold = Double.parseDouble(args[2]);
+
+		int regressions = 0;
+		System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Result", "Change");
+		for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+			JsonNode previous = baseline.get(entry.getKey());
+			double score = entry.getValue().at("/primaryMetric/score").asDouble();
+			String unit = entry.getValue().at("/primaryMetric/scoreUnit").asText();
+			if (previous == null) {
+				System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+				continue;
+			}
+			double previousScore = previous.at("/primaryMetric/score").asDouble();
+			//throughput is better when higher, all other modes measure time
+			boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+			double change = (score - previousScore) / previousScore;
+			boolean regression = (higherIsBetter ? -change : change) > threshold;
+			if (regression) {
+				regressions++;
+			}
+			System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), previousScore, score, change * 100, unit, regression ? "  REGRESSION" : "");
+		}
+		baseline.keySet().stream().filter(key -> !result.containsKey(key)).forEach(key -> System.out.printf("%-90s not run%n", key));
+
+		if (regressions > 0) {
+			System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, JsonNode> read(ObjectMapper mapper, File file) throws IOException {
+		if (!file.exists()) {
+			throw new IllegalArgumentException("Missing benchmark results: " + file);
+		}
+		Map<String, JsonNode> benchmarks = new LinkedHashMap<>();
+		mapper.readTree(file).forEach(benchmark -> benchmarks.put(key(benchmark), benchmark));
+		return benchmarks;
+	}
+
+	private static String key(JsonNode benchmark) {
+		String name = benchmark.get("benchmark").asText().replace(BaselineComparison.class.getPackageName() + ".", "");
+		JsonNode params = benchmark.get("params");
+		if (params == null) {
+			return name;
+		}
+		return name + StreamSupport.stream(((Iterable<Map.Entry<String, JsonNode>>) params::fields).spliterator(), false)
+			.map(param -> param.getKey() + "=" + param.getValue().asText())
+			.collect(Collectors.joining(", ", " [", "]"));
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import de.cornelsen.nep.model.entity.Rating;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persisting a bulk of new ratings through Hibernate into an in-memory H2 database, with the sequence incremented by 1 or 50
+ * (Hibernate adopts the increment of the sequence as allocation size) and with or without JDBC batches of 50.
+ * The statements Hibernate sends are counted and printed per bulk at the end of every trial. Each of them is a round trip
+ * to the remote database in production, which the in-memory database does not have, so the time is just the local work per statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+//the code paths of Hibernate and H2 take far longer to compile than the other benchmarks
+@Warmup(iterations = 15, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+	private static final int ENTITIES = 200;
+
+	@Param({"1", "50"})
+	private int allocationSize;
+
+	@Param({"1", "50"})
+	private int batchSize;
+
+	private final AtomicLong sequenceStatements = new AtomicLong();
+	private final AtomicLong insertStatements = new AtomicLong();
+	private final AtomicLong otherStatements = new AtomicLong();
+	private JdbcDataSource database;
+	private SessionFactory sessionFactory;
+	private long bulks;
+	private long userId;
+
+	@Setup
+	public void setup() throws SQLException {
+		database = new JdbcDataSource();
+		database.setURL("jdbc:h2:mem:bulk_insert_%d_%d;DB_CLOSE_DELAY=-1".formatted(allocationSize, batchSize));
+		try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("create sequence s_ratings start with 1 increment by " + allocationSize);
+			statement.execute("""
+				create table ratings (id bigint primary key, publisher_id bigint, item_id varchar(255), user_id varchar(255),
+				                      rating smallint, text varchar(1000), modified_at timestamp, created_at timestamp)""");
+		}
+		sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+			.applySetting(AvailableSettings.DATASOURCE, counting(database))
+			.applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+			.applySetting(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.FIX)
+			.applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+			.applySetting(AvailableSettings.ORDER_INSERTS, true)
+			.build())
+			.addAnnotatedClass(Rating.class)
+			.buildMetadata()
+			.buildSessionFactory();
+		//statements of the bootstrap are not part of a bulk
+		sequenceStatements.set(0);
+		insertStatements.set(0);
+		otherStatements.set(0);
+	}
+
+	/**
+	 * Keeps the table from growing over the trial, the statement of the truncate is not counted.
+	 */
+	@Setup(Level.Iteration)
+	public void truncate() throws SQLException {
+		try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("truncate table ratings");
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		System.out.printf(Locale.ENGLISH, "%nallocationSize %d, batchSize %d: %.1f statements per bulk of %d ratings (%.1f sequence, %.1f insert, %.1f other)%n",
+			allocationSize, batchSize, (sequenceStatements.get() + insertStatements.get() + otherStatements.get()) * 1.0 / bulks, ENTITIES,
+			sequenceStatements.get() * 1.0 / bulks, insertStatements.get() * 1.0 / bulks, otherStatements.get() * 1.0 / bulks);
+		sessionFactory.close();
+		try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("shutdown");
+		}
+	}
+
+	@Benchmark
+	public Long persist() {
+		String user = "user-" + userId++;
+		Rating rating = null;
+		try (Session session = sessionFactory.openSession()) {
+			Transaction transaction = session.beginTransaction();
+			for (int i = 0; i < ENTITIES; i++) {
+				rating = new Rating();
+				rating.setPublisherId(1L);
+				rating.setItemId("item-" + i);
+				rating.setUserId(user);
+				rating.setRating((short) (i % 5 + 1));
+				rating.setCreatedAt(LocalDateTime.now());
+				rating.setModifiedAt(rating.getCreatedAt());
+				session.persist(rating);
+			}
+			transaction.commit();
+		}
+		bulks++;
+		return rating.getId();
+	}
+
+	private DataSource counting(DataSource dataSource) {
+		return proxy(DataSource.class, dataSource, (method, result, args) ->
+			result instanceof Connection connection ? proxy(Connection.class, connection, (connectionMethod, statement, statementArgs) ->
+				statement instanceof Statement ? proxy(connectionMethod.getReturnType(), statement, (statementMethod, executed, executeArgs) -> {
+					if (statementMethod.getName().startsWith("execute")) {
+						String sql = statementArgs != null && statementArgs.length > 0 ? statementArgs[0].toString() : executeArgs[0].toString();
+						count(sql.toLowerCase(Locale.ROOT));
+					}
+					return executed;
+				}) : statement) : result);
+	}
+
+	private void count(String sql) {
+		if (sql.contains("next value for") || sql.contains("nextval")) {
+			sequenceStatements.incrementAndGet();
+		} else if (sql.startsWith("insert")) {
+			insertStatements.incrementAndGet();
+		} else {
+			otherStatements.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Delegates all calls to the target, the result of every call is passed through the given interceptor.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<?> type, Object target, Interceptor interceptor) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			try {
+				return interceptor.intercept(method, method.invoke(target, args), args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return (T) Proxy.newProxyInstance(BulkInsertBenchmark.class.getClassLoader(), new Class<?>[]{type}, handler);
+	}
+
+	@FunctionalInterface
+	private interface Interceptor {
+		Object intercept(java.lang.reflect.Method method, Object result, Object[] args) throws SQLException;
+	}
+}
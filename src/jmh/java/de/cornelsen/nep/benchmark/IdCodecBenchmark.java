@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import de.cornelsen.nep.util.AesIdCodec;
+import de.cornelsen.nep.util.DesedeIdCodec;
+import de.cornelsen.nep.util.IdCodec;
+import de.cornelsen.nep.util.VersionedIdCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.codec.Hex;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.DESedeKeySpec;
+import javax.crypto.spec.IvParameterSpec;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id encoding and decoding from several threads: the former per call key and cipher setup against pooled ciphers,
+ * the cache of hot ids and the version 2 format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class IdCodecBenchmark {
+
+	private static final String HEX_KEY = "a8eb47c6194a8111ec1b90910242ac12000210242ac12001";
+	private static final int IDS = 4096;
+
+	private final long[] ids = new long[IDS];
+	private final String[] legacyValues = new String[IDS];
+	private final String[] aesValues = new String[IDS];
+
+	private IdCodec pooled;
+	private IdCodec cached;
+	private IdCodec aes;
+
+	@Setup
+	public void setup() throws Exception {
+		pooled = new DesedeIdCodec(HEX_KEY);
+		cached = new VersionedIdCodec(pooled, null, 1, 10_000);
+		aes = new AesIdCodec("000102030405060708090a0b0c0d0e0f");
+		for (int i = 0; i < IDS; i++) {
+			ids[i] = ThreadLocalRandom.current().nextLong(1, 1_000_000);
+			legacyValues[i] = legacyEncrypt(ids[i]);
+			aesValues[i] = aes.encode(ids[i]);
+		}
+	}
+
+	@Benchmark
+	public String legacyEncode() throws Exception {
+		return legacyEncrypt(ids[next()]);
+	}
+
+	@Benchmark
+	public Long legacyDecode() throws Exception {
+		return legacyDecrypt(legacyValues[next()]);
+	}
+
+	@Benchmark
+	public String pooledEncode() {
+		return pooled.encode(ids[next()]);
+	}
+
+	@Benchmark
+	public Long pooledDecode() {
+		return pooled.decode(legacyValues[next()]);
+	}
+
+	@Benchmark
+	public String cachedEncode() {
+		return cached.encode(ids[next()]);
+	}
+
+	@Benchmark
+	public Long cachedDecode() {
+		return cached.decode(legacyValues[next()]);
+	}
+
+	@Benchmark
+	public String aesEncode() {
+		return aes.encode(ids[next()]);
+	}
+
+	@Benchmark
+	public Long aesDecode() {
+		return aes.decode(aesValues[next()]);
+	}
+
+	private static int next() {
+		return ThreadLocalRandom.current().nextInt(IDS);
+	}
+
+	private static String legacyEncrypt(Long value) throws Exception {
+		SecretKey key = SecretKeyFactory.getInstance("DESede").generateSecret(new DESedeKeySpec(Hex.decode(HEX_KEY)));
+		Cipher cipher = Cipher.getInstance("DESede/CBC/PKCS5Padding");
+		cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(new byte[8]));
+		return String.valueOf(Hex.encode(cipher.doFinal(value.toString().getBytes("ISO-8859-2"))));
+	}
+
+	private static Long legacyDecrypt(String value) throws Exception {
+		SecretKey key = SecretKeyFactory.getInstance("DESede").generateSecret(new DESedeKeySpec(Hex.decode(HEX_KEY)));
+		Cipher cipher = Cipher.getInstance("DESede/CBC/PKCS5Padding");
+		cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(new byte[8]));
+		return Long.parseLong(new String(cipher.doFinal(Hex.decode(value)), "ISO-8859-2"));
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.cornelsen.nep.model.dto.request.LRTEnum;
+import de.cornelsen.nep.model.dto.request.SearchReq;
+import de.cornelsen.nep.model.dto.search.FederalState;
+import de.cornelsen.nep.model.dto.search.MediaType;
+import de.cornelsen.nep.model.dto.search.ProviderType;
+import de.cornelsen.nep.model.dto.search.SchoolType;
+import de.cornelsen.nep.model.dto.search.Subject;
+import de.cornelsen.nep.serializer.AsOrSerializer;
+import de.cornelsen.nep.service.client.LtiFilterEncoder;
+import de.cornelsen.nep.util.StringUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Filter expression of a typical search, compiled encoder against the former reflection and ObjectMapper.convertValue path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LtiFilterEncoderBenchmark {
+
+	private final ObjectMapper mapper = new ObjectMapper()
+		.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+		.disable(SerializationFeature.FAIL_ON_SELF_REFERENCES)
+		.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+		.registerModule(new JavaTimeModule());
+
+	private LtiFilterEncoder encoder;
+	private SearchReq request;
+
+	@Param({"DEFAULT", "DUF"})
+	private ProviderType providerType;
+
+	@Setup
+	public void setup() {
+		encoder = new LtiFilterEncoder();
+		request = new SearchReq();
+		request.setSearch("\"Satz des Pythagoras\" \"Geometrie\"");
+		request.setSubject(Set.of(Subject.values()[0], Subject.values()[1]));
+		request.setTechnicalFormat(Set.of(MediaType.values()[0]));
+		request.setFederalStates(Set.of(FederalState.values()[0], FederalState.values()[2]));
+		request.setSchoolType(SchoolType.values()[2]);
+		request.setLearningResourceType(LRTEnum.values()[0]);
+		request.setLanguage("de");
+		request.setPublishDate(LocalDate.of(2017, 1, 1));
+	}
+
+	@Benchmark
+	public String compiled() {
+		return encoder.encode(request, providerType);
+	}
+
+	@Benchmark
+	public String legacy() {
+		Set<String> processAsOrFields = Arrays.stream(request.getClass().getDeclaredFields())
+			.filter(f -> Arrays.stream(f.getAnnotations()).anyMatch(AsOrSerializer.class::isInstance))
+			.map(Field::getName)
+			.collect(Collectors.toSet());
+
+		request.setProviderType(providerType);
+		Map<String, ?> paramsMap = mapper.convertValue(request, new TypeReference<Map<String, Object>>() {
+		});
+		String filterParam = paramsMap.entrySet()
+			.stream()
+			.map(e -> e.getKey().concat(processAsOrFields.contains(e.getKey()) ? "~'" : "='").concat(StringUtil.toIndentedString(e.getValue())).concat("'"))
+			.collect(Collectors.joining(" AND "));
+		return UriUtils.encode(filterParam, StandardCharsets.UTF_8);
+	}
+}
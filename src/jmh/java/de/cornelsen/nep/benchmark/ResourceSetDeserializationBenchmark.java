@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.cornelsen.nep.model.dto.lti.ResourceSetType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of a publisher search response, configured like the ObjectMapper of the ResourceClient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceSetDeserializationBenchmark {
+
+	private final ObjectMapper mapper = new ObjectMapper()
+		.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+		.disable(SerializationFeature.FAIL_ON_SELF_REFERENCES)
+		.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+		.registerModule(new JavaTimeModule());
+
+	private byte[] payload;
+
+	@Param({"100", "1000"})
+	private int resources;
+
+	@Setup
+	public void setup() throws IOException {
+		ResourceSetType resourceSet = new ResourceSetType();
+		resourceSet.setResources(SearchFixtures.resources(new Random(42), resources));
+		payload = mapper.writeValueAsBytes(resourceSet);
+	}
+
+	@Benchmark
+	public ResourceSetType readValue() throws IOException {
+		return mapper.readValue(payload, ResourceSetType.class);
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import de.cornelsen.nep.mapper.ResourceTypeMapper;
+import de.cornelsen.nep.mapper.ResourceTypeMapperImpl;
+import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
+import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of one publisher response to the dtos of the search result, including the typical age range rewrite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceTypeMapperBenchmark {
+
+	private final ResourceTypeMapper mapper = new ResourceTypeMapperImpl();
+	private SearchResultWrapper wrapper;
+
+	@Param({"20", "100"})
+	private int resources;
+
+	@Setup
+	public void setup() {
+		wrapper = SearchFixtures.wrapper(new Random(42), 1, resources);
+	}
+
+	@Benchmark
+	public List<ResourceTypeDto> toDto() {
+		return mapper.toDto(wrapper);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import de.cornelsen.nep.model.dto.lti.ResourceSetType;
+import de.cornelsen.nep.model.dto.lti.ResourceType;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.dto.request.LRTEnum;
+import de.cornelsen.nep.model.dto.search.MediaType;
+import de.cornelsen.nep.model.dto.search.SchoolType;
+import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
+import de.cornelsen.nep.model.dto.search.Subject;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Publisher responses shaped like the ones of the production publishers, seeded to be reproducible.
+ */
+final class SearchFixtures {
+
+	private SearchFixtures() {
+	}
+
+	static List<ResourceType> resources(Random random, int count) {
+		return IntStream.range(0, count).mapToObj(i -> resource(random, i)).toList();
+	}
+
+	static SearchResultWrapper wrapper(Random random, long publisherId, int count) {
+		PublisherRsp publisher = new PublisherRsp();
+		publisher.setDecryptedId(publisherId);
+		publisher.setId("publisher-" + publisherId);
+		publisher.setName("Publisher " + publisherId);
+
+		ResourceSetType resourceSet = new ResourceSetType();
+		resourceSet.setResources(resources(random, count));
+		SearchResultWrapper wrapper = new SearchResultWrapper();
+		wrapper.setPublisher(publisher);
+		wrapper.setResourceSetType(resourceSet);
+		wrapper.setTotalElements(count * 10L);
+		return wrapper;
+	}
+
+	private static ResourceType resource(Random random, int index) {
+		ResourceType resource = new ResourceType();
+		resource.setId("resource-" + index + "-" + random.nextInt(1_000_000));
+		resource.setName("Arbeitsblatt " + (char) ('A' + random.nextInt(26)) + " zum Satz des Pythagoras " + index);
+		resource.setDescription("Übungen zur Geometrie mit Lösungen, geeignet für den Unterricht und die Wiederholung zu Hause. ".repeat(1 + random.nextInt(4)));
+		resource.setSubject(List.of(Subject.values()[random.nextInt(Subject.values().length)]));
+		resource.setUrl("https://publisher.example/resources/" + index);
+		resource.setThumbnailUrl("https://publisher.example/thumbnails/" + index + ".png");
+		resource.setLearningResourceType(List.of(LRTEnum.values()[random.nextInt(LRTEnum.values().length)]));
+		resource.setLanguage(List.of("de"));
+		int age = 10 + random.nextInt(8);
+		resource.setTypicalAgeRange(age + "-" + (age + 2));
+		resource.setAuthor(List.of("Autorin " + random.nextInt(100)));
+		resource.setPublisher("Verlag");
+		resource.setTechnicalFormat(MediaType.values()[random.nextInt(MediaType.values().length)]);
+		resource.setSchoolType(List.of(SchoolType.values()[random.nextInt(SchoolType.values().length)]));
+		resource.setAccessibilityFeatures(List.of("alternativeText", "structuralNavigation"));
+		resource.setPublishDate(random.nextInt(10) == 0 ? null : LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000)));
+		resource.setRelevance(random.nextFloat());
+		return resource;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.benchmark;
+
+import de.cornelsen.nep.mapper.ResourceTypeMapper;
+import de.cornelsen.nep.mapper.ResourceTypeMapperImpl;
+import de.cornelsen.nep.model.dto.request.SearchReq;
+import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
+import de.cornelsen.nep.service.CommonSearchService;
+import de.cornelsen.nep.util.MergeUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Ordering the results of all publishers with SEARCH_COMPARE for the third page of a search:
+ * k-way merge of the sorted publisher responses against sorting all results at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchMergeBenchmark {
+
+	private static final int PUBLISHERS = 8;
+	private static final int PAGE_SIZE = 20;
+	private static final int OFFSET = 2 * PAGE_SIZE;
+
+	private List<List<ResourceTypeDto>> results;
+	private Comparator<ResourceTypeDto> comparator;
+
+	@Param({"NEWEST", "ALPHABETIC", "MOST_VIEWED"})
+	private SearchReq.SortBy sortBy;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		ResourceTypeMapper mapper = new ResourceTypeMapperImpl();
+		comparator = CommonSearchService.SEARCH_COMPARE.apply(Optional.of(sortBy));
+		//every publisher returns its first pages sorted
+		results = IntStream.range(0, PUBLISHERS)
+			.mapToObj(publisher -> mapper.toDto(SearchFixtures.wrapper(random, publisher, OFFSET + PAGE_SIZE)).stream().sorted(comparator).toList())
+			.toList();
+	}
+
+	@Benchmark
+	public List<ResourceTypeDto> merge() {
+		return MergeUtils.mergeSorted(results, comparator, OFFSET, PAGE_SIZE).items();
+	}
+
+	@Benchmark
+	public List<ResourceTypeDto> sortAll() {
+		List<ResourceTypeDto> all = new ArrayList<>();
+		results.forEach(all::addAll);
+		all.sort(comparator);
+		return all.subList(OFFSET, OFFSET + PAGE_SIZE);
+	}
+}
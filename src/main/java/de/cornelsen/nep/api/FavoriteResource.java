@@ -27,10 +27,13 @@ import de.cornelsen.nep.model.dto.favorites.FavoriteReq;
 import de.cornelsen.nep.model.dto.favorites.FavoriteMarkReq;
 import de.cornelsen.nep.model.dto.favorites.FavoriteUnmarkReq;
 import de.cornelsen.nep.model.dto.favorites.FavoriteOwnRsp;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.serializer.validate.ValidateSort;
 import de.cornelsen.nep.service.FavoriteService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -40,6 +43,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
@@ -57,6 +61,13 @@ public class FavoriteResource {
 		return favoriteService.getFavorites(req, pageable);
 	}
 
+	@GetMapping("/api/favorites/own/scroll")
+	@Operation(summary = "The REST request to get logged in user's favorites page by page, newest first", tags = {"FavoritesResource"})
+	public KeysetPage<FavoriteOwnRsp> scrollFavorites(@Valid FavoriteReq req, @RequestParam(required = false) String cursor, @Min(1) @Max(ApplicationConst.MAX_PAGE_SIZE) @RequestParam(defaultValue = ApplicationConst.DEFAULT_PAGE_SIZE_PARAM) int size) {
+		log.info("[REST] scrollFavorites, FavoriteReq: {}, cursor: {}, size: {}", req, cursor, size);
+		return favoriteService.getFavorites(req, cursor, size);
+	}
+
 	@PostMapping("/api/favorites/mark")
 	@Operation(summary = "The REST request to add item as favorite", tags = {"FavoritesResource"})
 	public void markFavorite(@Valid @RequestBody FavoriteMarkReq req) {
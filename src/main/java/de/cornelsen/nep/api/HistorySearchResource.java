@@ -24,21 +24,27 @@ package de.cornelsen.nep.api;
 
 import de.cornelsen.nep.configuration.ApplicationConst;
 import de.cornelsen.nep.model.dto.history.HistorySearchReq;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
 import de.cornelsen.nep.service.HistorySearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 public class HistorySearchResource {
@@ -52,6 +58,13 @@ public class HistorySearchResource {
 		return historySearchService.getHistorySearch(pageable);
 	}
 
+	@GetMapping("/api/history/search/own/scroll")
+	@Operation(summary = "The REST request to get history search items page by page, newest first", tags = {"HistoryResource"})
+	public KeysetPage<ResourceTypeDto> scrollHistorySearch(@RequestParam(required = false) String cursor, @Min(1) @Max(ApplicationConst.MAX_PAGE_SIZE) @RequestParam(defaultValue = ApplicationConst.DEFAULT_PAGE_SIZE_PARAM) int size) {
+		log.info("[REST] scrollHistorySearch, cursor: {}, size: {}", cursor, size);
+		return historySearchService.getHistorySearch(cursor, size);
+	}
+
 	@PostMapping("/api/history/search")
 	@Operation(summary = "The REST request to add history search item", tags = {"HistoryResource"})
 	public void historySearch(@Valid @RequestBody HistorySearchReq req) {
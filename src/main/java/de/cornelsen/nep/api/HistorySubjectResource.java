@@ -24,23 +24,29 @@ package de.cornelsen.nep.api;
 
 import de.cornelsen.nep.configuration.ApplicationConst;
 import de.cornelsen.nep.model.dto.history.HistorySubjectReq;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.search.Subject;
 import de.cornelsen.nep.service.HistorySubjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 public class HistorySubjectResource {
@@ -54,6 +60,13 @@ public class HistorySubjectResource {
 		return ResponseEntity.ok(historySubjectService.getHistorySubject(pageable));
 	}
 
+	@GetMapping("/api/history/subject/own/scroll")
+	@Operation(summary = "The REST request to get history subject items page by page, newest first", tags = {"HistoryResource"})
+	public KeysetPage<Subject> scrollHistorySubject(@RequestParam(required = false) String cursor, @Min(1) @Max(ApplicationConst.MAX_PAGE_SIZE) @RequestParam(defaultValue = ApplicationConst.DEFAULT_PAGE_SIZE_PARAM) int size) {
+		log.info("[REST] scrollHistorySubject, cursor: {}, size: {}", cursor, size);
+		return historySubjectService.getHistorySubject(cursor, size);
+	}
+
 	@PostMapping("/api/history/subject")
 	@Operation(summary = "The REST request to add history subject item", tags = {"HistoryResource"})
 	public void addHistorySubject(@Valid @RequestBody HistorySubjectReq req) {
@@ -23,6 +23,7 @@
 package de.cornelsen.nep.api;
 
 import de.cornelsen.nep.configuration.ApplicationConst;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.rating.RatingCreateReq;
 import de.cornelsen.nep.model.dto.rating.RatingEditReq;
 import de.cornelsen.nep.model.dto.rating.RatingOwnRsp;
@@ -31,6 +32,8 @@ import de.cornelsen.nep.serializer.validate.ValidateSort;
 import de.cornelsen.nep.service.RatingService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -56,6 +59,13 @@ public class RatingResource {
 		return ResponseEntity.ok(ratingService.getItemRating(publisherId, itemId, rating, pageable));
 	}
 
+	@GetMapping("/api/ratings/{publisherId}/{itemId}/comments")
+	@Operation(summary = "The REST request to get item's comments page by page, most recently modified first", tags = {"RatingResource"})
+	public KeysetPage<RatingRsp.Comment> getItemComments(@PathVariable String publisherId, @PathVariable String itemId, @RequestParam(required = false, defaultValue = "") short[] rating, @RequestParam(required = false) String cursor, @Min(1) @Max(ApplicationConst.MAX_PAGE_SIZE) @RequestParam(defaultValue = ApplicationConst.DEFAULT_PAGE_SIZE_PARAM) int size) {
+		log.info("[REST] getItemComments, {} {}, cursor: {}", publisherId, itemId, cursor);
+		return ratingService.getComments(publisherId, itemId, rating, cursor, size);
+	}
+
 	@GetMapping("/api/ratings/own")
 	@Operation(summary = "The REST request to get my own ratings", tags = {"RatingResource"})
 	public Page<RatingOwnRsp> getOwnRatings(@ValidateSort(properties = {"name", "relevance", "publishDate"}) @PageableDefault(size = ApplicationConst.DEFAULT_PAGE_SIZE) Pageable pageable) {
@@ -63,6 +73,13 @@ public class RatingResource {
 		return ratingService.getOwnRatings(pageable);
 	}
 
+	@GetMapping("/api/ratings/own/scroll")
+	@Operation(summary = "The REST request to get my own ratings page by page, most recently modified first", tags = {"RatingResource"})
+	public KeysetPage<RatingOwnRsp> scrollOwnRatings(@RequestParam(required = false) String cursor, @Min(1) @Max(ApplicationConst.MAX_PAGE_SIZE) @RequestParam(defaultValue = ApplicationConst.DEFAULT_PAGE_SIZE_PARAM) int size) {
+		log.info("[REST] scrollOwnRatings, cursor: {}, size: {}", cursor, size);
+		return ratingService.getOwnRatings(cursor, size);
+	}
+
 	@PostMapping("/api/ratings")
 	@Operation(summary = "The REST request to rate an item", tags = {"RatingResource"})
 	public void rateItem(@Valid @RequestBody RatingCreateReq req) {
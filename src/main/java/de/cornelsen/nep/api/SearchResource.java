@@ -23,11 +23,11 @@
 package de.cornelsen.nep.api;
 
 import de.cornelsen.nep.configuration.ApplicationConst;
-import de.cornelsen.nep.configuration.CaffeineConfiguration;
 import de.cornelsen.nep.model.dto.filters.FiltersRsp;
 import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ResourceDetailsDto;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
+import de.cornelsen.nep.model.dto.search.SearchPage;
 import de.cornelsen.nep.serializer.validate.ValidateSort;
 import de.cornelsen.nep.service.FilterService;
 import de.cornelsen.nep.service.SearchService;
@@ -35,14 +35,14 @@ import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Validated
@@ -54,7 +54,6 @@ public class SearchResource {
 	private final FilterService filterService;
 
 	@GetMapping("/api/filters")
-	@Cacheable(cacheNames = CaffeineConfiguration.CACHE_FILTER_NAME)
 	@Operation(summary = "The REST read request message for the filtersList() API call.", description = "To obtain, read, the list of filters that are supported by a LOR. ", tags = {"SearchApi"})
 	public FiltersRsp filtersList() {
 		log.info("[REST] filtersList");
@@ -63,21 +62,21 @@ public class SearchResource {
 
 	@GetMapping("/api/search/most-relevant")
 	@Operation(summary = "The REST read request message for the searchForResources() API call.", description = "This is the search request. The criteria for the search are passed as query parameters and the set of identified resources are returned in the payload for the response message. ", tags = {"SearchApi"})
-	public Page<ResourceTypeDto> mostRelevant(@Valid SearchReq request, @ValidateSort(properties = {"name", "relevance", "publishDate"}) @PageableDefault(size = ApplicationConst.DEFAULT_PAGE_SIZE) Pageable pageable) {
+	public Mono<SearchPage<ResourceTypeDto>> mostRelevant(@Valid SearchReq request, @ValidateSort(properties = {"name", "relevance", "publishDate"}) @PageableDefault(size = ApplicationConst.DEFAULT_PAGE_SIZE) Pageable pageable, @RequestParam(required = false) String cursor) {
 		log.info("[REST] mostRelevant, request: {}", request);
-		return searchService.searchAndAggregate(request, pageable);
+		return searchService.searchAndAggregate(request, pageable, cursor);
 	}
 
 	@GetMapping("/api/search/related")
 	@Operation(summary = "Get related items.", tags = {"SearchApi",})
-	public Page<ResourceTypeDto> related(@Valid SearchReq request, @ValidateSort(properties = {"name", "relevance", "publishDate"}) @PageableDefault(size = ApplicationConst.DEFAULT_PAGE_SIZE) Pageable pageable) {
+	public Mono<SearchPage<ResourceTypeDto>> related(@Valid SearchReq request, @ValidateSort(properties = {"name", "relevance", "publishDate"}) @PageableDefault(size = ApplicationConst.DEFAULT_PAGE_SIZE) Pageable pageable, @RequestParam(required = false) String cursor) {
 		log.info("[REST] related, request");
-		return searchService.searchAndAggregate(request, pageable);
+		return searchService.searchAndAggregate(request, pageable, cursor);
 	}
 
 	@GetMapping("/api/search/details/{publisherId}/{itemId}")
 	@Operation(summary = "Get product details.", tags = {"SearchApi",})
-	public ResourceDetailsDto details(@PathVariable String publisherId, @PathVariable String itemId) {
+	public Mono<ResourceDetailsDto> details(@PathVariable String publisherId, @PathVariable String itemId) {
 		log.info("[REST] item details request, publisherId {}, itemId: {}", publisherId, itemId);
 		return searchService.getDetails(publisherId, itemId);
 	}
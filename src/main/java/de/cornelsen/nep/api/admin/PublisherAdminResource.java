@@ -22,17 +22,15 @@
 
 package de.cornelsen.nep.api.admin;
 
-import de.cornelsen.nep.configuration.CaffeineConfiguration;
 import de.cornelsen.nep.model.dto.publisher.PublisherCreateReq;
 import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
 import de.cornelsen.nep.model.dto.publisher.PublisherUpdateReq;
 import de.cornelsen.nep.service.PublisherService;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -44,6 +42,7 @@ import java.util.List;
 public class PublisherAdminResource {
 
 	private final PublisherService publisherService;
+	private final IdCodec idCodec;
 
 	@GetMapping("/api/admin/publisher")
 	@Operation(summary = "The REST get request to get publishers list API call.", description = "Get all publishers", tags = {"PublisherApi"})
@@ -56,12 +55,11 @@ public class PublisherAdminResource {
 	@Operation(summary = "The REST get request to get publisher API call.", description = "Get publisher by id", tags = {"PublisherApi"})
 	public ResponseEntity<PublisherRsp> getPublisher(@PathVariable String id) {
 		log.info("[REST][ADMIN] getPublisher, id: {}", id);
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 		return ResponseEntity.ok(publisherService.getPublisher(decryptedId));
 	}
 
 	@PostMapping("/api/admin/publisher")
-	@CacheEvict(cacheNames = CaffeineConfiguration.CACHE_FILTER_NAME, allEntries = true)
 	@Operation(summary = "The REST post request to add new publisher API call.", description = "Add new publisher", tags = {"PublisherApi"})
 	public ResponseEntity<Long> addPublisher(@Valid @RequestBody PublisherCreateReq publisherReq) {
 		log.info("[REST][ADMIN] addPublisher, publisherReq: {}", publisherReq);
@@ -69,7 +67,6 @@ public class PublisherAdminResource {
 	}
 
 	@PutMapping("/api/admin/publisher")
-	@CacheEvict(cacheNames = CaffeineConfiguration.CACHE_FILTER_NAME, allEntries = true)
 	@Operation(summary = "The REST put request to update publisher API call.", description = "Update publisher", tags = {"PublisherApi"})
 	public ResponseEntity<PublisherRsp> updatePublisher(@Valid @RequestBody PublisherUpdateReq publisherReq) {
 		log.info("[REST][ADMIN] updatePublisher, publisherReq: {}", publisherReq);
@@ -77,7 +74,6 @@ public class PublisherAdminResource {
 	}
 
 	@DeleteMapping("/api/admin/publisher/{id}")
-	@CacheEvict(cacheNames = CaffeineConfiguration.CACHE_FILTER_NAME, allEntries = true)
 	@Operation(summary = "The REST delete request to remove publisher API call.", description = "Remove publisher", tags = {"PublisherApi"})
 	public ResponseEntity<Void> deletePublisher(@PathVariable String id) {
 		log.info("[REST][ADMIN] deletePublisher, id: {}", id);
@@ -86,7 +82,6 @@ public class PublisherAdminResource {
 	}
 
 	@PostMapping("/api/admin/publisher/{id}/accept")
-	@CacheEvict(cacheNames = CaffeineConfiguration.CACHE_FILTER_NAME, allEntries = true)
 	@Operation(summary = "The REST post request to accept pending publisher API call.", description = "Accept pending publisher", tags = {"PublisherApi"})
 	public ResponseEntity<PublisherRsp> acceptPublisher(@PathVariable String id) {
 		log.info("[REST][ADMIN] acceptPublisher, id: {}", id);
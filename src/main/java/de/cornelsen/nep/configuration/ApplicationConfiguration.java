@@ -27,6 +27,7 @@ import lombok.Data;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 @Data
@@ -35,12 +36,21 @@ public class ApplicationConfiguration {
 
 	private String frontendUrl;
 	private Integer requestTimeout;
+	private Duration searchBudget = Duration.ofSeconds(5);
 	private String subjectSuffix;
 	private String searchSuffix;
 	private String detailsSuffix;
 	private boolean justLoggedUsers;
 	private List<AdminUser> adminUsers;
 	private String dufProviderName;
+	private SearchCache searchCache = new SearchCache();
+	private SearchEnrichment searchEnrichment = new SearchEnrichment();
+	private CommentsCache commentsCache = new CommentsCache();
+	private History history = new History();
+	private CircuitBreaker circuitBreaker = new CircuitBreaker();
+	private HttpClient httpClient = new HttpClient();
+	private VirtualThreads virtualThreads = new VirtualThreads();
+	private IdCodec idCodec = new IdCodec();
 
 	@Data
 	public static class AdminUser {
@@ -48,6 +58,72 @@ public class ApplicationConfiguration {
 		private String password;
 	}
 
+	@Data
+	public static class SearchCache {
+		private boolean enabled = true;
+		private Duration ttl = Duration.ofMinutes(5);
+		private long maximumSize = 1000;
+	}
+
+	@Data
+	public static class CommentsCache {
+		private boolean enabled = true;
+		private Duration ttl = Duration.ofMinutes(10);
+		private long maximumSize = 10000; //items
+	}
+
+	@Data
+	public static class History {
+		private boolean writeBehind = true; //clicks are written in batches in the background, otherwise right away
+		private int capacity = 10000; //pending clicks per type, further clicks are written right away
+		private int batchSize = 500;
+	}
+
+	@Data
+	public static class SearchEnrichment {
+		private boolean ratings = true; //community ratings of the items of a result page
+		private boolean userFlags = true; //favorite and rated flags of the logged-in user
+	}
+
+	@Data
+	public static class CircuitBreaker {
+		private int windowSize = 50;
+		private int minimumCalls = 10;
+		private double failureRateThreshold = 0.5;
+		private Duration slowCallDuration = Duration.ofSeconds(4);
+		private double slowCallRateThreshold = 0.8;
+		private Duration openDuration = Duration.ofSeconds(30);
+		private Duration minimumTimeout = Duration.ofSeconds(1);
+		private double timeoutMultiplier = 2;
+	}
+
+	@Data
+	public static class HttpClient {
+		private int maxConnections = 50; //per publisher host
+		private int pendingAcquireMaxCount = 500;
+		private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+		private Duration maxIdleTime = Duration.ofSeconds(20);
+		private Duration maxLifeTime = Duration.ofMinutes(5);
+		private Duration evictionInterval = Duration.ofSeconds(30);
+		private Duration connectTimeout = Duration.ofSeconds(2);
+		private boolean http2;
+		private int sslSessionCacheSize = 1000;
+		private Duration sslSessionTimeout = Duration.ofHours(1);
+	}
+
+	@Data
+	public static class VirtualThreads {
+		private boolean enabled;
+		private Duration pinnedThreshold = Duration.ofMillis(20);
+	}
+
+	@Data
+	public static class IdCodec {
+		private int version = 1; //of encoded ids, all versions are decoded
+		private String key; //hex AES key, required for version 2
+		private long cacheSize = 10_000;
+	}
+
 	@PostConstruct
 	public void validate() {
 		if (StringUtils.isBlank(frontendUrl)) {
@@ -24,6 +24,8 @@ package de.cornelsen.nep.configuration;
 
 public class ApplicationConst {
 	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final String DEFAULT_PAGE_SIZE_PARAM = "" + DEFAULT_PAGE_SIZE;
+	public static final int MAX_PAGE_SIZE = 100;
 	public static final String DEFAULT_DATE_FORMAT = "dd.MM.yyyy, HH:mm";
 
 	private ApplicationConst() {
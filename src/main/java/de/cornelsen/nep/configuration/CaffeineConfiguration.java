@@ -35,7 +35,6 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CaffeineConfiguration {
 
-	public static final String CACHE_FILTER_NAME = "filter-cache";
 	public static final String CACHE_OWNER_ATTRIBUTES_NAME = "owner-attributes-cache";
 
 	@Bean
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.configuration;
+
+import de.cornelsen.nep.util.IdCodec;
+import de.cornelsen.nep.util.VersionedIdCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdCodecConfiguration {
+
+	public static final String ENCODED_CACHE_NAME = "id-codec-encoded";
+	public static final String DECODED_CACHE_NAME = "id-codec-decoded";
+
+	@Bean
+	public IdCodec idCodec(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+		ApplicationConfiguration.IdCodec config = applicationConfiguration.getIdCodec();
+		VersionedIdCodec idCodec = VersionedIdCodec.create(config.getVersion(), config.getKey(), config.getCacheSize());
+		CaffeineCacheMetrics.monitor(meterRegistry, idCodec.getEncoded(), ENCODED_CACHE_NAME);
+		CaffeineCacheMetrics.monitor(meterRegistry, idCodec.getDecoded(), DECODED_CACHE_NAME);
+		return idCodec;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.configuration;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
+
+/**
+ * One connection pool shared by all calls to the publishers, so connections are kept alive and reused across the fan-out.
+ * Pool limits apply per publisher host.
+ */
+@Slf4j
+@Configuration
+public class PublisherClientConfiguration {
+
+	public static final String PUBLISHER_WEB_CLIENT = "publisherWebClient";
+	private static final String POOL_NAME = "publishers";
+
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider publisherConnectionProvider(ApplicationConfiguration applicationConfiguration) {
+		ApplicationConfiguration.HttpClient config = applicationConfiguration.getHttpClient();
+		return ConnectionProvider.builder(POOL_NAME)
+			.maxConnections(config.getMaxConnections())
+			.pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+			.pendingAcquireTimeout(config.getPendingAcquireTimeout())
+			.maxIdleTime(config.getMaxIdleTime())
+			.maxLifeTime(config.getMaxLifeTime())
+			.evictInBackground(config.getEvictionInterval())
+			.metrics(true)
+			.build();
+	}
+
+	@Bean(PUBLISHER_WEB_CLIENT)
+	public WebClient publisherWebClient(WebClient.Builder webClientBuilder, ConnectionProvider publisherConnectionProvider, ApplicationConfiguration applicationConfiguration) {
+		ApplicationConfiguration.HttpClient config = applicationConfiguration.getHttpClient();
+		SslProvider.ProtocolSslContextSpec sslContextSpec = (config.isHttp2() ? Http2SslContextSpec.forClient() : Http11SslContextSpec.forClient())
+			.configure(builder -> builder
+				.sessionCacheSize(config.getSslSessionCacheSize())
+				.sessionTimeout(config.getSslSessionTimeout().toSeconds()));
+
+		HttpClient httpClient = HttpClient.create(publisherConnectionProvider)
+			.protocol(config.isHttp2() ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11} : new HttpProtocol[]{HttpProtocol.HTTP11})
+			.secure(spec -> spec.sslContext(sslContextSpec))
+			.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.getConnectTimeout().toMillis())
+			.option(ChannelOption.SO_KEEPALIVE, true)
+			.keepAlive(true)
+			.compress(true)
+			.metrics(true, uri -> POOL_NAME);
+		log.info("Publisher http client: {}", config);
+
+		return webClientBuilder
+			.clientConnector(new ReactorClientHttpConnector(httpClient))
+			.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) //16MB
+			.build();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier (e.g. blocking within synchronized sections or native frames) via JFR
+ * jdk.VirtualThreadPinned events, as log warning with the blocking frames and as counter.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	private static final int LOGGED_FRAMES = 8;
+
+	private final RecordingStream recordingStream;
+
+	public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+		Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+			.description("Virtual threads blocked while pinned to their carrier thread for longer than the threshold")
+			.register(meterRegistry);
+
+		this.recordingStream = new RecordingStream();
+		recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		recordingStream.onEvent(PINNED_EVENT, event -> {
+			pinned.increment();
+			log.warn("Virtual thread pinned for {} ms at:\n{}", event.getDuration().toMillis(), frames(event));
+		});
+		recordingStream.startAsync();
+		log.info("Monitoring virtual threads pinned longer than {}", threshold);
+	}
+
+	@Override
+	public void close() {
+		recordingStream.close();
+	}
+
+	private static String frames(RecordedEvent event) {
+		RecordedStackTrace stackTrace = event.getStackTrace();
+		if (stackTrace == null) {
+			return "\tunknown";
+		}
+		return stackTrace.getFrames().stream()
+			.limit(LOGGED_FRAMES)
+			.map(RecordedFrame::getMethod)
+			.map(method -> "\t" + method.getType().getName() + "." + method.getName())
+			.collect(Collectors.joining("\n"));
+	}
+}
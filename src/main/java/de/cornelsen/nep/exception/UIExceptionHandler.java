@@ -36,6 +36,7 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -106,6 +107,15 @@ public class UIExceptionHandler {
 		return ResponseEntity.status(apiErrorDetails.getStatus()).body(apiErrorDetails);
 	}
 
+	@ExceptionHandler(ResponseStatusException.class)
+	public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex) {
+		log.error(EXCEPTION_MESSAGE, ex.getClass().getName(), ex.getMessage());
+		ApiErrorDetails apiErrorDetails = of(HttpStatus.valueOf(ex.getStatusCode().value()))
+			.withMessage("errors.http." + ex.getStatusCode().value())
+			.withType(ex.getClass().getSimpleName());
+		return ResponseEntity.status(apiErrorDetails.getStatus()).body(apiErrorDetails);
+	}
+
 	@ExceptionHandler(MaxUploadSizeExceededException.class)
 	public ResponseEntity<Object> handleMaxSizeException(MaxUploadSizeExceededException ex) {
 		log.error(EXCEPTION_MESSAGE, ex.getClass().getName(), ex.getMessage(), ex);
@@ -23,21 +23,9 @@
 package de.cornelsen.nep.mapper;
 
 import de.cornelsen.nep.model.dto.search.MediaType;
-import de.cornelsen.nep.util.CryptoUtils;
-import org.mapstruct.Named;
 
 public interface CommonMapper {
 
-	@Named("encryptedValue")
-	default String toEncryptedValue(Long value) {
-		return CryptoUtils.encrypt(value);
-	}
-
-	@Named("decryptedValue")
-	default Long toDecryptedValue(String value) {
-		return CryptoUtils.decrypt(value);
-	}
-
 	default MediaType map(String mediaType) {
 		return MediaType.fromValue(mediaType);
 	}
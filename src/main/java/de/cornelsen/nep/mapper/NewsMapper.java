@@ -31,7 +31,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.ReportingPolicy;
 
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", uses = IdMapper.class, unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface NewsMapper extends CommonMapper {
 
 	@Mapping(source = "id", target = "id", qualifiedByName = "encryptedValue")
@@ -33,7 +33,7 @@ import org.mapstruct.ReportingPolicy;
 
 import java.util.List;
 
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", uses = IdMapper.class, unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface PublisherMapper extends CommonMapper {
 
 	@Mapping(source = "croppyImageId", target = "croppyImageId", qualifiedByName = "decryptedValue")
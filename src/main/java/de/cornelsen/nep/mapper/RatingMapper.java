@@ -34,7 +34,7 @@ import org.mapstruct.ReportingPolicy;
 
 import java.util.List;
 
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", uses = IdMapper.class, unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface RatingMapper extends CommonMapper {
 
 	@Mapping(source = "publisherId", target = "publisherId", qualifiedByName = "decryptedValue")
@@ -30,6 +30,7 @@ import lombok.Data;
 public class HistorySearchReq {
 
 	@NotEmpty
+	@Size(max = 36)
 	private String id;
 
 	@NotEmpty
@@ -23,11 +23,13 @@
 package de.cornelsen.nep.model.dto.history;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
 public class HistorySubjectReq {
 
 	@NotEmpty
+	@Size(max = 100)
 	private String key;
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.model.dto.page;
+
+import de.cornelsen.nep.util.IdCodec;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Position within a per-user list ordered by timestamp and id descending, handed out to the client along with every page.
+ * The next page continues right after the position (keyset pagination), hence its latency does not grow with the depth.
+ */
+@Slf4j
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class KeysetCursor {
+
+	private static final String VERSION = "1";
+	private static final String FIELD_DELIMITER = ";";
+
+	/**
+	 * Position preceding all items, for queries which always seek.
+	 */
+	public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+	//timestamp of the last item of the previous page
+	private final LocalDateTime timestamp;
+
+	//id of the last item of the previous page, breaks ties of equal timestamps
+	private final Long id;
+
+	public String encode(IdCodec idCodec) {
+		String value = String.join(FIELD_DELIMITER, VERSION, timestamp.toString(), idCodec.encode(id));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return empty for the first page
+	 * @throws IllegalArgumentException if the token was not issued by {@link #encode(IdCodec)}
+	 */
+	public static Optional<KeysetCursor> decode(String token, IdCodec idCodec) {
+		if (StringUtils.isBlank(token)) {
+			return Optional.empty();
+		}
+		try {
+			String[] fields = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(FIELD_DELIMITER, -1);
+			if (fields.length != 3 || !VERSION.equals(fields[0])) {
+				throw new IllegalArgumentException("Unsupported cursor");
+			}
+			return Optional.of(new KeysetCursor(LocalDateTime.parse(fields[1]), idCodec.decode(fields[2])));
+		} catch (RuntimeException e) {
+			log.info("Invalid keyset cursor: {}, due to: {}", token, e.getMessage());
+			throw new IllegalArgumentException("errors.wrongValue");
+		}
+	}
+}
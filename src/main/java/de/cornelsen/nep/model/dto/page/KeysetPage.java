@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.model.dto.page;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of a per-user list fetched by {@link KeysetCursor}, without total count.
+ */
+@Getter
+public class KeysetPage<T> extends SliceImpl<T> {
+
+	@Schema(description = "Token to be passed along with the request of the next page, null on the last page.")
+	private final String cursor;
+
+	public KeysetPage(List<T> content, int size, String cursor) {
+		super(content, PageRequest.ofSize(size), cursor != null);
+		this.cursor = cursor;
+	}
+
+	/**
+	 * @param rows  up to size + 1 rows in list order, the surplus row just tells there is a next page
+	 * @param key   encoded position of a row
+	 * @param toDto maps the rows of the page, keeping their order
+	 */
+	public static <E, T> KeysetPage<T> of(List<E> rows, int size, Function<E, String> key, Function<List<E>, List<T>> toDto) {
+		if (rows.isEmpty()) {
+			return new KeysetPage<>(Collections.emptyList(), size, null);
+		}
+		List<E> page = rows.subList(0, Math.min(size, rows.size()));
+		String cursor = rows.size() > size ? key.apply(page.get(page.size() - 1)) : null;
+		return new KeysetPage<>(toDto.apply(page), size, cursor);
+	}
+}
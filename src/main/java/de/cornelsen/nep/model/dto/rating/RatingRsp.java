@@ -44,6 +44,7 @@ public class RatingRsp {
 
 	@Schema(description = "Item already rated by current logged user")
 	private boolean rated;
+	@Schema(description = "Number of votes per star, every star from 1 to 5 is present (0 without votes)")
 	private Map<Integer, Long> votes = new HashMap<>();
 	private Page<Comment> comments;
 
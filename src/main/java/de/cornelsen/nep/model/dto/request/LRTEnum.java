@@ -23,6 +23,7 @@
 package de.cornelsen.nep.model.dto.request;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import de.cornelsen.nep.model.dto.search.ProviderValue;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Getter
 @RequiredArgsConstructor
-public enum LRTEnum {
+public enum LRTEnum implements ProviderValue {
 	ACTIVITY_EXPERIMENT("Activity/Experiment", "Activity/Experiment"),
 	ACTIVITY_LEARNING("Activity/Learning", "Activity/Learning"),
 	ACTIVITY_WORKSHEET("Activity/Worksheet", "Activity/Worksheet"),
@@ -142,13 +142,13 @@ public class SearchReq implements Serializable {
 		if (schoolType == null) {
 			return null;
 		}
-		return ProviderType.DUF.equals(providerType) ? schoolType.getDufValue() : schoolType.getDefaultValue();
+		return schoolType.getValue(providerType);
 	}
 
 	public String getLearningResourceType() {
 		if (learningResourceType == null) {
 			return null;
 		}
-		return ProviderType.DUF.equals(providerType) ? learningResourceType.getDufValue() : learningResourceType.getDefaultValue();
+		return learningResourceType.getValue(providerType);
 	}
 }
@@ -38,10 +38,6 @@ public class ResourceDetailsDto extends ResourceTypeDto {
 	@Schema(description = "Table of content.")
 	private List<TableOfContent> toc;
 
-	@Schema(description = "Determines whether item marked as favorite.")
-	private boolean favorite = false;
-
-	private boolean rated;
 	private String currentRating;
 	private long totalRatingsCount;
 
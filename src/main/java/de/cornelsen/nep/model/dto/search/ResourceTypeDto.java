@@ -22,6 +22,7 @@
 
 package de.cornelsen.nep.model.dto.search;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import de.cornelsen.nep.model.dto.lti.CCLTILinkType;
 import de.cornelsen.nep.model.dto.lti.LearningObjectivesType;
 import de.cornelsen.nep.model.dto.lti.ResourceType;
@@ -36,7 +37,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Data
-public class ResourceTypeDto {
+public class ResourceTypeDto implements Cloneable {
 	@Schema(description = "The name/title of resource. Model Primitive Datatype = NormalizedString.")
 	private String name;
 
@@ -123,6 +124,22 @@ public class ResourceTypeDto {
 	@Schema(description = "Owner of the rights to the resource or who made it available (company or person). Model Primitive Datatype = NormalizedString.")
 	private String publisherId;
 
+	@Schema(description = "Average rating of the users of the platform, not set if not rated or not requested.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String communityRating;
+
+	@Schema(description = "Number of ratings of the users of the platform, not set if not rated or not requested.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long communityRatingsCount;
+
+	@Schema(description = "Determines whether item marked as favorite, not set if not logged in or not requested.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Boolean favorite;
+
+	@Schema(description = "Item already rated by current logged user, not set if not logged in or not requested.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Boolean rated;
+
 	public List<Subject> getSubject() {
 		return subject.stream().filter(Objects::nonNull).toList();
 	}
@@ -130,4 +147,15 @@ public class ResourceTypeDto {
 	public List<LRTEnum> getLearningResourceType() {
 		return learningResourceType.stream().filter(Objects::nonNull).toList();
 	}
+
+	/**
+	 * Shallow copy, e.g. to enrich results which are shared by the cache of the publisher responses.
+	 */
+	public ResourceTypeDto copy() {
+		try {
+			return (ResourceTypeDto) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
 }
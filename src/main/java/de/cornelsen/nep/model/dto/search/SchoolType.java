@@ -30,7 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Getter
 @RequiredArgsConstructor
-public enum SchoolType {
+public enum SchoolType implements ProviderValue {
 	GERMAN_SCHOOL_1("Kindergarten", "Kindergarten"),
 	GERMAN_SCHOOL_2("Vorschule", "Vorschule"),
 	GERMAN_SCHOOL_3("Grundschule", "Grundschule"),
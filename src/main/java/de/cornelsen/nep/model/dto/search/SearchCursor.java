@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.model.dto.search;
+
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.util.IdCodec;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Pagination state of a federated search, handed out to the client along with every page.
+ * Records how many items were already consumed from each publisher, so the next page requests just
+ * the missing tail (offset) from every publisher instead of all the previous pages again.
+ * The state is encoded within the token itself, hence no server side storage is needed.
+ * Publishers are keyed by their id encoded by the current codec, internal ids are never exposed.
+ */
+@Slf4j
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SearchCursor {
+
+	//version 1 keyed the offsets by the publisher id as exposed (of any codec version), 2 by the internal id
+	private static final String VERSION = "3";
+	private static final String FIELD_DELIMITER = ";";
+	private static final String OFFSET_DELIMITER = ",";
+	private static final String KEY_VALUE_DELIMITER = "=";
+
+	//identifies search request, sorting and page size the cursor was created for
+	private final String fingerprint;
+
+	//page the cursor can be used for
+	private final int page;
+
+	//(decrypted) publisher id -> number of already consumed items
+	private final Map<Long, Long> offsets;
+
+	public static String fingerprint(String canonicalRequest, Pageable pageable) {
+		return DigestUtils.sha256Hex(canonicalRequest + FIELD_DELIMITER + pageable.getSort() + FIELD_DELIMITER + pageable.getPageSize()).substring(0, 16);
+	}
+
+	public boolean matches(String fingerprint, Pageable pageable) {
+		return this.fingerprint.equals(fingerprint) && this.page == pageable.getPageNumber();
+	}
+
+	public long getOffset(PublisherRsp publisher) {
+		return offsets.getOrDefault(publisher.getDecryptedId(), 0L);
+	}
+
+	public String encode(IdCodec idCodec) {
+		String encodedOffsets = offsets.entrySet().stream()
+			.map(e -> idCodec.encode(e.getKey()) + KEY_VALUE_DELIMITER + e.getValue())
+			.collect(Collectors.joining(OFFSET_DELIMITER));
+		String value = String.join(FIELD_DELIMITER, VERSION, fingerprint, String.valueOf(page), encodedOffsets);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return empty if the token is invalid, offsets of unknown publishers are dropped
+	 */
+	public static Optional<SearchCursor> decode(String token, IdCodec idCodec) {
+		if (StringUtils.isBlank(token)) {
+			return Optional.empty();
+		}
+		try {
+			String[] fields = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(FIELD_DELIMITER, -1);
+			if (fields.length != 4 || !VERSION.equals(fields[0])) {
+				log.debug("Unsupported search cursor: {}", token);
+				return Optional.empty();
+			}
+			Map<Long, Long> offsets = new LinkedHashMap<>();
+			for (String offset : StringUtils.split(fields[3], OFFSET_DELIMITER)) {
+				String[] keyValue = offset.split(KEY_VALUE_DELIMITER);
+				long consumed = Math.max(0, Long.parseLong(keyValue[1]));
+				try {
+					offsets.put(idCodec.decode(keyValue[0]), consumed);
+				} catch (NoSuchElementException e) {
+					log.debug("Unknown publisher {} within search cursor: {}", keyValue[0], token);
+				}
+			}
+			return Optional.of(new SearchCursor(fields[1], Integer.parseInt(fields[2]), offsets));
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			log.debug("Invalid search cursor: {}, due to: {}", token, e.getMessage());
+			return Optional.empty();
+		}
+	}
+}
@@ -27,16 +27,26 @@ import de.cornelsen.nep.model.dto.lti.ResourceSetType;
 import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class SearchResultWrapper {
 
 	private ResourceSetType resourceSetType;
 
+	//resources already mapped while reading the response (just set instead of resourceSetType)
+	@JsonIgnore
+	private List<ResourceTypeDto> items;
+
 	@JsonIgnore
 	private long totalElements;
 
 	@JsonIgnore
 	private PublisherRsp publisher;
 
+	//offset the publisher has been requested with
+	@JsonIgnore
+	private long offset;
+
 }
 
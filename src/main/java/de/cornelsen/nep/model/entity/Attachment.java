@@ -38,7 +38,7 @@ public class Attachment {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "s_attachments")
-	@SequenceGenerator(name = "s_attachments", sequenceName = "s_attachments", allocationSize = 1)
+	@SequenceGenerator(name = "s_attachments", sequenceName = "s_attachments", allocationSize = 50)
 	private Long id;
 	private String name;
 	private String type;
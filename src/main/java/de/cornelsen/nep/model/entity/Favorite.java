@@ -36,7 +36,7 @@ public class Favorite {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "s_favorites")
-	@SequenceGenerator(name = "s_favorites", sequenceName = "s_favorites", allocationSize = 1)
+	@SequenceGenerator(name = "s_favorites", sequenceName = "s_favorites", allocationSize = 50)
 	private Long id;
 	private Long publisherId;
 	private String itemId;
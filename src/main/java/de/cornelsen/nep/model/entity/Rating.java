@@ -36,7 +36,7 @@ public class Rating {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "s_ratings")
-	@SequenceGenerator(name = "s_ratings", sequenceName = "s_ratings", allocationSize = 1)
+	@SequenceGenerator(name = "s_ratings", sequenceName = "s_ratings", allocationSize = 50)
 	private Long id;
 	private Long publisherId;
 	private String itemId;
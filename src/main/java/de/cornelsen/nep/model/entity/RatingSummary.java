@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rating counts of an item, maintained along with the ratings, so they are read by primary key.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "rating_summaries")
+@IdClass(RatingSummary.Key.class)
+public class RatingSummary {
+
+	@Id
+	private Long publisherId;
+	@Id
+	private String itemId;
+	private long votes1;
+	private long votes2;
+	private long votes3;
+	private long votes4;
+	private long votes5;
+	private long total;
+	private long emptyRatings;
+
+	public Map<Integer, Long> getVotes() {
+		return Map.of(1, votes1, 2, votes2, 3, votes3, 4, votes4, 5, votes5);
+	}
+
+	/**
+	 * @return average rating, formatted like the rating of the details, null if not rated
+	 */
+	public String getAverage() {
+		if (total == 0) {
+			return null;
+		}
+		return String.format(Locale.ENGLISH, "%.1f", (votes1 + 2 * votes2 + 3 * votes3 + 4 * votes4 + 5 * votes5) * 1.0 / total);
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private Long publisherId;
+		private String itemId;
+	}
+}
@@ -26,8 +26,13 @@ import de.cornelsen.nep.model.entity.Favorite;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -35,6 +40,23 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
 
 	Page<Favorite> findAllByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
+	List<Favorite> findAllByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+	/**
+	 * Favorites of the user marked before the given position (keyset pagination), newest first.
+	 */
+	@Query(nativeQuery = true, value = """
+		select * from favorites
+		where user_id = :userId and (created_at, id) < (:createdAt, :id)
+		order by created_at desc, id desc
+		limit :limit""")
+	List<Favorite> findAllByUserIdBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
 	Optional<Favorite> findByPublisherIdAndItemIdAndUserId(Long publisherId, String itemId, String userId);
 
+	/**
+	 * Favorites of the user for all combinations of the given publishers and items, a superset of the items of a result page.
+	 */
+	List<Favorite> findAllByUserIdAndPublisherIdInAndItemIdIn(String userId, Collection<Long> publisherIds, Collection<String> itemIds);
+
 }
@@ -26,14 +26,43 @@ import de.cornelsen.nep.model.entity.HistorySearch;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface HistorySearchRepository extends JpaRepository<HistorySearch, Long> {
 
-	Optional<HistorySearch> findByUserIdAndItemIdAndPublisherId(String currentUserEmail, String itemId, Long publisherId);
-
 	Page<HistorySearch> findAllByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+
+	List<HistorySearch> findAllByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+	/**
+	 * Items the user opened before the given position, newest first.
+	 */
+	@Query(nativeQuery = true, value = """
+		select * from history_search
+		where user_id = :userId and (created_at, id) < (:createdAt, :id)
+		order by created_at desc, id desc
+		limit :limit""")
+	List<HistorySearch> findAllByUserIdBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+	/**
+	 * Records the clicks of a batch, the i-th element of every list belongs to the same click.
+	 * Clicks of an item already within the history just move it to the top. The batch must not contain an item of a user twice.
+	 */
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		insert into history_search (id, user_id, publisher_id, item_id, created_at)
+		select nextval('s_history_search'), h.user_id, h.publisher_id, h.item_id, h.created_at
+		from unnest(array[:userIds], array[:publisherIds], array[:itemIds], array[:createdAts]) as h(user_id, publisher_id, item_id, created_at)
+		on conflict (user_id, publisher_id, item_id) do update
+		set created_at = greatest(history_search.created_at, excluded.created_at)""")
+	void upsert(@Param("userIds") List<String> userIds, @Param("publisherIds") List<Long> publisherIds, @Param("itemIds") List<String> itemIds, @Param("createdAts") List<LocalDateTime> createdAts);
 }
@@ -26,14 +26,43 @@ import de.cornelsen.nep.model.entity.HistorySubject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface HistorySubjectRepository extends JpaRepository<HistorySubject, Long> {
 
-	Optional<HistorySubject> findByUserIdAndKey(String currentUserEmail, String key);
-
 	Page<HistorySubject> findAllByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+
+	List<HistorySubject> findAllByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+	/**
+	 * Subjects the user opened before the given position, newest first.
+	 */
+	@Query(nativeQuery = true, value = """
+		select * from history_subject
+		where user_id = :userId and (created_at, id) < (:createdAt, :id)
+		order by created_at desc, id desc
+		limit :limit""")
+	List<HistorySubject> findAllByUserIdBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+	/**
+	 * Records the subject clicks of a batch, the i-th element of every list belongs to the same click.
+	 * The batch must not contain a subject of a user twice.
+	 */
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		insert into history_subject (id, user_id, key, created_at)
+		select nextval('s_history_subject'), h.user_id, h.key, h.created_at
+		from unnest(array[:userIds], array[:keys], array[:createdAts]) as h(user_id, key, created_at)
+		on conflict (user_id, key) do update
+		set created_at = greatest(history_subject.created_at, excluded.created_at)""")
+	void upsert(@Param("userIds") List<String> userIds, @Param("keys") List<String> keys, @Param("createdAts") List<LocalDateTime> createdAts);
 }
@@ -22,33 +22,87 @@
 
 package de.cornelsen.nep.repository;
 
-import de.cornelsen.nep.model.dto.rating.RatingStats;
+import de.cornelsen.nep.model.dto.rating.ItemRatingSummary;
 import de.cornelsen.nep.model.entity.Rating;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
-	@Query("from Rating r where r.publisherId = ?1 and r.itemId = ?2 and (r.rating in ?3 or ?4 = true)")
-	Page<Rating> findAllByPublisherIdAndItemIdAndRating(Long publisherId, String itemId, short[] rating, boolean all, Pageable pageable);
+	Page<Rating> findAllByPublisherIdAndItemId(Long publisherId, String itemId, Pageable pageable);
+
+	Page<Rating> findAllByPublisherIdAndItemIdAndRatingIn(Long publisherId, String itemId, Collection<Short> ratings, Pageable pageable);
+
+	/**
+	 * Comments of the item modified before the given position, latest first.
+	 */
+	@Query(nativeQuery = true, value = """
+		select * from ratings
+		where publisher_id = :publisherId and item_id = :itemId and (modified_at, id) < (:modifiedAt, :id)
+		order by modified_at desc, id desc
+		limit :limit""")
+	List<Rating> findCommentsBefore(@Param("publisherId") Long publisherId, @Param("itemId") String itemId, @Param("modifiedAt") LocalDateTime modifiedAt, @Param("id") Long id, @Param("limit") int limit);
+
+	/**
+	 * Comments of the item with any of the given stars modified before the given position, latest first.
+	 * Every star is read from the index separately, so just the requested number of comments is read per star.
+	 */
+	@Query(nativeQuery = true, value = """
+		select r.*
+		from unnest(array[:ratings]) as stars(rating)
+		         cross join lateral (select *
+		                             from ratings
+		                             where publisher_id = :publisherId and item_id = :itemId and rating = stars.rating and (modified_at, id) < (:modifiedAt, :id)
+		                             order by modified_at desc, id desc
+		                             limit :limit) r
+		order by r.modified_at desc, r.id desc
+		limit :limit""")
+	List<Rating> findCommentsBefore(@Param("publisherId") Long publisherId, @Param("itemId") String itemId, @Param("ratings") Collection<Short> ratings, @Param("modifiedAt") LocalDateTime modifiedAt, @Param("id") Long id, @Param("limit") int limit);
 
 	Page<Rating> findAllByUserIdOrderByModifiedAtDesc(String userId, Pageable pageable);
 
-	Optional<Rating> findByPublisherIdAndItemIdAndUserId(Long publisherId, String itemId, String userId);
+	List<Rating> findAllByUserIdOrderByModifiedAtDescIdDesc(String userId, Pageable pageable);
+
+	/**
+	 * Ratings of the user modified before the given position, latest first. Position is the last rating of the previous page.
+	 */
+	@Query(nativeQuery = true, value = """
+		select * from ratings
+		where user_id = :userId and (modified_at, id) < (:modifiedAt, :id)
+		order by modified_at desc, id desc
+		limit :limit""")
+	List<Rating> findAllByUserIdBefore(@Param("userId") String userId, @Param("modifiedAt") LocalDateTime modifiedAt, @Param("id") Long id, @Param("limit") int limit);
 
-	@Query("select new de.cornelsen.nep.model.dto.rating.RatingStats(rating, COUNT(id)) from Rating where publisherId = ?1 and itemId = ?2 group by rating")
-	List<RatingStats> countItemRatings(Long publisherId, String itemId);
+	Optional<Rating> findByPublisherIdAndItemIdAndUserId(Long publisherId, String itemId, String userId);
 
-	@Query("select count(*) from Rating where publisherId = ?1 and itemId = ?2")
-	long countTotalRatings(Long publisherId, String itemId);
+	/**
+	 * Ratings of the user for all combinations of the given publishers and items, a superset of the items of a result page.
+	 */
+	List<Rating> findAllByUserIdAndPublisherIdInAndItemIdIn(String userId, Collection<Long> publisherIds, Collection<String> itemIds);
 
-	@Query("select count(*) from Rating where publisherId = ?1 and itemId = ?2 and text is null")
-	long countEmptyRatings(Long publisherId, String itemId);
+	/**
+	 * @param userId current user, null if not logged in
+	 */
+	@Query(nativeQuery = true, value = """
+		select coalesce(s.total, 0) as total,
+		       coalesce(s.votes1, 0) as votes1,
+		       coalesce(s.votes2, 0) as votes2,
+		       coalesce(s.votes3, 0) as votes3,
+		       coalesce(s.votes4, 0) as votes4,
+		       coalesce(s.votes5, 0) as votes5,
+		       exists(select 1 from ratings r where r.publisher_id = :publisherId and r.item_id = :itemId and r.user_id = cast(:userId as varchar)) as rated,
+		       exists(select 1 from favorites f where f.publisher_id = :publisherId and f.item_id = :itemId and f.user_id = cast(:userId as varchar)) as favorite
+		from (select 1) item
+		         left join rating_summaries s on s.publisher_id = :publisherId and s.item_id = :itemId""")
+	ItemRatingSummary summarizeItem(@Param("publisherId") Long publisherId, @Param("itemId") String itemId, @Param("userId") String userId);
 
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.repository;
+
+import de.cornelsen.nep.model.entity.RatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RatingSummaryRepository extends JpaRepository<RatingSummary, RatingSummary.Key> {
+
+	/**
+	 * Summaries of all combinations of the given publishers and items, a superset of the items of a result page.
+	 */
+	List<RatingSummary> findAllByPublisherIdInAndItemIdIn(Collection<Long> publisherIds, Collection<String> itemIds);
+
+	/**
+	 * Adds (count 1) or removes (count -1) a rating, atomically, so concurrent ratings of an item are not lost.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		insert into rating_summaries (publisher_id, item_id, votes1, votes2, votes3, votes4, votes5, total, empty_ratings)
+		values (:publisherId, :itemId,
+		        case when :rating = 1 then :count else 0 end,
+		        case when :rating = 2 then :count else 0 end,
+		        case when :rating = 3 then :count else 0 end,
+		        case when :rating = 4 then :count else 0 end,
+		        case when :rating = 5 then :count else 0 end,
+		        :count,
+		        case when :empty then :count else 0 end)
+		on conflict (publisher_id, item_id) do update
+		set votes1        = rating_summaries.votes1 + excluded.votes1,
+		    votes2        = rating_summaries.votes2 + excluded.votes2,
+		    votes3        = rating_summaries.votes3 + excluded.votes3,
+		    votes4        = rating_summaries.votes4 + excluded.votes4,
+		    votes5        = rating_summaries.votes5 + excluded.votes5,
+		    total         = rating_summaries.total + excluded.total,
+		    empty_ratings = rating_summaries.empty_ratings + excluded.empty_ratings""")
+	void add(@Param("publisherId") Long publisherId, @Param("itemId") String itemId, @Param("rating") short rating, @Param("empty") boolean empty, @Param("count") int count);
+
+	/**
+	 * Moves an edited rating from its previous stars (and text) to the new ones in a single statement, the total stays the same.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		update rating_summaries
+		set votes1        = votes1 - case when :fromRating = 1 then 1 else 0 end + case when :toRating = 1 then 1 else 0 end,
+		    votes2        = votes2 - case when :fromRating = 2 then 1 else 0 end + case when :toRating = 2 then 1 else 0 end,
+		    votes3        = votes3 - case when :fromRating = 3 then 1 else 0 end + case when :toRating = 3 then 1 else 0 end,
+		    votes4        = votes4 - case when :fromRating = 4 then 1 else 0 end + case when :toRating = 4 then 1 else 0 end,
+		    votes5        = votes5 - case when :fromRating = 5 then 1 else 0 end + case when :toRating = 5 then 1 else 0 end,
+		    empty_ratings = empty_ratings - case when :fromEmpty then 1 else 0 end + case when :toEmpty then 1 else 0 end
+		where publisher_id = :publisherId and item_id = :itemId""")
+	void move(@Param("publisherId") Long publisherId, @Param("itemId") String itemId,
+			  @Param("fromRating") short fromRating, @Param("fromEmpty") boolean fromEmpty,
+			  @Param("toRating") short toRating, @Param("toEmpty") boolean toEmpty);
+}
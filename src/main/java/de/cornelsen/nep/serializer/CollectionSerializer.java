@@ -34,6 +34,13 @@ public class CollectionSerializer extends JsonSerializer<Collection<Object>> {
 
 	@Override
 	public void serialize(Collection<Object> collection, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-		jsonGenerator.writeString(collection.stream().map(Object::toString).collect(Collectors.joining(",")));
+		jsonGenerator.writeString(join(collection));
+	}
+
+	/**
+	 * Sorted, so the same filter always results in the same request (e.g. for caching or search cursors)
+	 */
+	public static String join(Collection<?> collection) {
+		return collection.stream().map(Object::toString).sorted().collect(Collectors.joining(","));
 	}
 }
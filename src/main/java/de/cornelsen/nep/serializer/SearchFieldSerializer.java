@@ -29,8 +29,6 @@ import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ProviderType;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.stream.Collectors;
 
 public class SearchFieldSerializer extends JsonSerializer<String> {
 
@@ -41,9 +39,7 @@ public class SearchFieldSerializer extends JsonSerializer<String> {
 
 	@Override
 	public void serialize(String value, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-		String result = value.matches("\".*\"") ?
-			Arrays.stream(value.split("\"")).skip(1).collect(Collectors.joining(JOINING_DELIMITER))
-			: String.join(JOINING_DELIMITER, value.split(DELIMITER));
+		String result = terms(value);
 
 		jsonGenerator.writeString(result);
 		SearchReq searchReq = (SearchReq) jsonGenerator.getCurrentValue();
@@ -51,4 +47,55 @@ public class SearchFieldSerializer extends JsonSerializer<String> {
 			jsonGenerator.writeStringField(DUF_FIELD_NAME, result);
 		}
 	}
+
+	/**
+	 * Quoted phrases ("a b" "c") are kept as a whole, otherwise every word is a term of its own.
+	 *
+	 * @return the terms joined by {@link #JOINING_DELIMITER}
+	 */
+	public static String terms(String value) {
+		return isQuoted(value) ? split(value, '"', 1) : split(value, ' ', 0);
+	}
+
+	//same as value.matches("\".*\""), '.' matches anything but line terminators
+	private static boolean isQuoted(String value) {
+		int last = value.length() - 1;
+		if (last < 1 || value.charAt(0) != '"' || value.charAt(last) != '"') {
+			return false;
+		}
+		for (int i = 1; i < last; i++) {
+			char c = value.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//same as String.join(JOINING_DELIMITER, Arrays.stream(value.split(delimiter)).skip(skip)), without regex and intermediate arrays
+	private static String split(String value, char delimiter, int skip) {
+		int end = value.length();
+		while (end > 0 && value.charAt(end - 1) == delimiter) {
+			end--;
+		}
+		if (end == 0) {
+			//either empty or just (dropped) trailing empty parts
+			return "";
+		}
+		StringBuilder result = new StringBuilder(end);
+		int part = 0;
+		int start = 0;
+		for (int i = 0; i <= end; i++) {
+			if (i == end || value.charAt(i) == delimiter) {
+				if (part++ >= skip) {
+					if (part > skip + 1) {
+						result.append(JOINING_DELIMITER);
+					}
+					result.append(value, start, i);
+				}
+				start = i + 1;
+			}
+		}
+		return result.toString();
+	}
 }
\ No newline at end of file
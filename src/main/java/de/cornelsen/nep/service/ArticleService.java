@@ -29,7 +29,7 @@ import de.cornelsen.nep.model.dto.article.ArticleRsp;
 import de.cornelsen.nep.model.dto.article.ArticleUpdateReq;
 import de.cornelsen.nep.model.entity.Article;
 import de.cornelsen.nep.repository.ArticleRepository;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import de.cornelsen.nep.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +49,7 @@ public class ArticleService {
 
 	private final ArticleMapper articleMapper;
 	private final ArticleRepository articleRepository;
+	private final IdCodec idCodec;
 
 	@Transactional(readOnly = true)
 	public List<ArticleRsp> getArticles(Sort sort) {
@@ -58,7 +59,7 @@ public class ArticleService {
 
 	@Transactional(readOnly = true)
 	public ArticleRsp getArticleDetails(String id) {
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 		ArticleRsp articleRsp = articleRepository.findById(decryptedId).map(articleMapper::toDto).orElseThrow(NoSuchElementException::new);
 		log.info("Retrieved article: {} by id: {}", articleRsp, id);
 		return articleRsp;
@@ -86,7 +87,7 @@ public class ArticleService {
 			throw new AccessDeniedException("cannotEdit");
 		}
 
-		Long decryptedId = CryptoUtils.decrypt(req.getId());
+		Long decryptedId = idCodec.decode(req.getId());
 
 		Article existingArticle = articleRepository.findById(decryptedId).orElseThrow(NoSuchElementException::new);
 		log.info("Found existing article: {}, by id: {}", existingArticle, decryptedId);
@@ -102,7 +103,7 @@ public class ArticleService {
 			throw new AccessDeniedException("cannotDelete");
 		}
 
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 
 		articleRepository.deleteById(decryptedId);
 		log.info("Article deleted: {}", decryptedId);
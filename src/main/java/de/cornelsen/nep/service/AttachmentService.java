@@ -26,7 +26,7 @@ import de.cornelsen.nep.model.dto.attachment.AttachmentRsp;
 import de.cornelsen.nep.model.dto.attachment.UploadAttachmentRsp;
 import de.cornelsen.nep.model.entity.Attachment;
 import de.cornelsen.nep.repository.AttachmentRepository;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import de.cornelsen.nep.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,10 +44,11 @@ import java.util.Set;
 public class AttachmentService {
 
 	private final AttachmentRepository attachmentRepository;
+	private final IdCodec idCodec;
 
 	@Transactional(readOnly = true)
 	public AttachmentRsp getAttachment(String id) {
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 		log.info("Get attachment, id: {}", decryptedId);
 		Attachment attachment = attachmentRepository.findById(decryptedId).orElseThrow();
 
@@ -71,12 +72,12 @@ public class AttachmentService {
 		log.info("Upload attachment: {}", attachment);
 
 		attachmentRepository.save(attachment);
-		return new UploadAttachmentRsp(CryptoUtils.encrypt(attachment.getId()), attachment.getSize());
+		return new UploadAttachmentRsp(idCodec.encode(attachment.getId()), attachment.getSize());
 	}
 
 	@Transactional
 	public void deleteAttachment(String id) {
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 		log.info("Delete attachment, id: {}", decryptedId);
 		if (!attachmentRepository.existsById(decryptedId)) {
 			throw new IllegalArgumentException("notFound");
@@ -27,6 +27,7 @@ import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
 import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
 import de.cornelsen.nep.service.client.SearchClientService;
+import de.cornelsen.nep.util.IdCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -41,6 +42,7 @@ public abstract class CommonSearchService {
 
 	protected final PublisherService publisherService;
 	protected final SearchClientService resourceClientService;
+	protected final IdCodec idCodec;
 
 	public static final Function<Optional<SearchReq.SortBy>, Comparator<ResourceTypeDto>> SEARCH_COMPARE = sortBy -> {
 		if (sortBy.isEmpty()) {
@@ -52,7 +54,8 @@ public abstract class CommonSearchService {
 			case OLDEST ->
 				Comparator.comparing(ResourceTypeDto::getPublishDate, Comparator.nullsLast(Comparator.naturalOrder()));
 			case ALPHABETIC -> Comparator.comparing(ResourceTypeDto::getName);
-			case MOST_VIEWED -> Comparator.comparing(ResourceTypeDto::getRelevance);
+			case MOST_VIEWED ->
+				Comparator.comparing(ResourceTypeDto::getRelevance, Comparator.nullsLast(Comparator.reverseOrder()));
 		};
 	};
 
@@ -74,6 +77,25 @@ public abstract class CommonSearchService {
 			.stream()
 			.collect(Collectors.toMap(Function.identity(), searchReqFunction));
 
-		return resourceClientService.search(searchRequestsMap, pageable);
+		return resourceClientService.searchById(searchRequestsMap, pageable).block();
+	}
+
+	/**
+	 * Resolves the items through their publishers, keyed by publisher and item id as item ids are unique per publisher only.
+	 * Items not found (or not matching the filter) are missing in the result.
+	 */
+	protected <T extends ResourceTypeDto> Map<ItemKey, T> resolve(Collection<ItemKey> items, Consumer<SearchReq> requestFilter, Function<SearchResultWrapper, List<T>> toDto) {
+		if (items.isEmpty()) {
+			return Map.of();
+		}
+		Map<Long, Set<String>> publisherItems = items.stream().collect(Collectors.groupingBy(ItemKey::publisherId, Collectors.mapping(ItemKey::itemId, Collectors.toSet())));
+		Map<ItemKey, T> results = new HashMap<>();
+		for (SearchResultWrapper wrapper : searchById(publisherItems, requestFilter, PageRequest.ofSize(items.size()))) {
+			toDto.apply(wrapper).forEach(result -> results.putIfAbsent(new ItemKey(wrapper.getPublisher().getDecryptedId(), result.getId()), result));
+		}
+		return results;
+	}
+
+	protected record ItemKey(Long publisherId, String itemId) {
 	}
 }
@@ -27,13 +27,15 @@ import de.cornelsen.nep.model.dto.favorites.FavoriteMarkReq;
 import de.cornelsen.nep.model.dto.favorites.FavoriteOwnRsp;
 import de.cornelsen.nep.model.dto.favorites.FavoriteReq;
 import de.cornelsen.nep.model.dto.favorites.FavoriteUnmarkReq;
+import de.cornelsen.nep.model.dto.page.KeysetCursor;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
 import de.cornelsen.nep.model.entity.Favorite;
 import de.cornelsen.nep.nmshd.service.DataWalletService;
 import de.cornelsen.nep.repository.FavoriteRepository;
 import de.cornelsen.nep.service.client.SearchClientService;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import de.cornelsen.nep.util.SecurityUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,9 +48,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -57,6 +61,8 @@ import java.util.stream.Collectors;
 @Service
 public class FavoriteService extends CommonSearchService {
 
+	private static final int MAX_SCANNED_PAGES = 5;
+
 	@Value("${application.nmshd.enabled}")
 	private boolean nmshdEnabled;
 
@@ -64,8 +70,8 @@ public class FavoriteService extends CommonSearchService {
 	private final FavoriteMapper favoriteMapper;
 	private final FavoriteRepository favoriteRepository;
 
-	public FavoriteService(PublisherService publisherService, SearchClientService resourceClientService, FavoriteMapper favoriteMapper, FavoriteRepository favoriteRepository, @Autowired(required = false) DataWalletService dataWalletService) {
-		super(publisherService, resourceClientService);
+	public FavoriteService(PublisherService publisherService, SearchClientService resourceClientService, IdCodec idCodec, FavoriteMapper favoriteMapper, FavoriteRepository favoriteRepository, @Autowired(required = false) DataWalletService dataWalletService) {
+		super(publisherService, resourceClientService, idCodec);
 		this.favoriteMapper = favoriteMapper;
 		this.favoriteRepository = favoriteRepository;
 		this.dataWalletService = dataWalletService;
@@ -104,10 +110,49 @@ public class FavoriteService extends CommonSearchService {
 		return new PageImpl<>(sortedResult, pageable, totalElementsCount.get());
 	}
 
+	/**
+	 * Favorites newest first, continuing after the given cursor.
+	 * The search filter is applied by the publishers, hence the list is scanned page by page until the page is filled.
+	 * A page may be short while still having a cursor once {@link #MAX_SCANNED_PAGES} pages have been scanned.
+	 */
+	@Transactional(readOnly = true)
+	public KeysetPage<FavoriteOwnRsp> getFavorites(FavoriteReq req, String cursor, int size) {
+		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
+
+		KeysetCursor position = KeysetCursor.decode(cursor, idCodec).orElse(null);
+		List<FavoriteOwnRsp> content = new ArrayList<>();
+		for (int scanned = 0; scanned < MAX_SCANNED_PAGES; scanned++) {
+			List<Favorite> rows = findFavorites(currentUserId, position, size + 1);
+			List<Favorite> page = rows.subList(0, Math.min(size, rows.size()));
+			Map<ItemKey, FavoriteOwnRsp> results = resolve(page.stream().map(favorite -> new ItemKey(favorite.getPublisherId(), favorite.getItemId())).toList(),
+				searchReq -> searchReq.setSearch(req.getSearch()), favoriteMapper::toDto);
+
+			for (int i = 0; i < page.size(); i++) {
+				Favorite favorite = page.get(i);
+				position = new KeysetCursor(favorite.getCreatedAt(), favorite.getId());
+				Optional.ofNullable(results.get(new ItemKey(favorite.getPublisherId(), favorite.getItemId()))).ifPresent(content::add);
+				if (content.size() == size) {
+					boolean hasNext = i < page.size() - 1 || rows.size() > size;
+					return new KeysetPage<>(content, size, hasNext ? position.encode(idCodec) : null);
+				}
+			}
+			if (rows.size() <= size) {
+				return new KeysetPage<>(content, size, null);
+			}
+		}
+		return new KeysetPage<>(content, size, position.encode(idCodec));
+	}
+
+	private List<Favorite> findFavorites(String userId, KeysetCursor position, int limit) {
+		return position == null
+			? favoriteRepository.findAllByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.ofSize(limit))
+			: favoriteRepository.findAllByUserIdBefore(userId, position.getTimestamp(), position.getId(), limit);
+	}
+
 	@Transactional
 	public void markFavorite(FavoriteMarkReq req) {
 		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
-		Long publisherId = CryptoUtils.decrypt(req.getPublisherId());
+		Long publisherId = idCodec.decode(req.getPublisherId());
 
 		if (favoriteRepository.findByPublisherIdAndItemIdAndUserId(publisherId, req.getId(), currentUserId).isPresent()) {
 			log.info("Item already marked as favourite. PublisherId: {}, itemId: {}, userId: {}", publisherId, req.getId(), currentUserId);
@@ -133,7 +178,7 @@ public class FavoriteService extends CommonSearchService {
 	@Transactional
 	public void unmarkFavorite(FavoriteUnmarkReq req) {
 		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
-		Long publisherId = CryptoUtils.decrypt(req.getPublisherId());
+		Long publisherId = idCodec.decode(req.getPublisherId());
 
 		Favorite favorite = favoriteRepository.findByPublisherIdAndItemIdAndUserId(publisherId, req.getId(), currentUserId).orElseThrow();
 		log.info("Removed item from favorites: {}", favorite);
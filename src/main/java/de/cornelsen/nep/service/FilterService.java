@@ -30,21 +30,49 @@ import de.cornelsen.nep.model.dto.request.LRTEnum;
 import de.cornelsen.nep.model.dto.search.*;
 import de.cornelsen.nep.model.dto.search.SchoolBook;
 import de.cornelsen.nep.service.client.SubjectClientService;
-import lombok.RequiredArgsConstructor;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import static de.cornelsen.nep.configuration.SchedulerConfiguration.JDBC_SCHEDULER;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class FilterService {
 
 	private final SubjectClientService subjectClientService;
 	private final PublisherService publisherService;
+	private final Scheduler jdbcScheduler;
+
+	/**
+	 * Filters served to every request, replaced in the background by {@link #refresh()}.
+	 */
+	private final AtomicReference<FiltersRsp> filters = new AtomicReference<>();
+	/**
+	 * Last known subjects per active publisher, kept for publishers which did not respond to a refresh.
+	 */
+	private volatile Map<Long, List<SubjectType>> publisherSubjects = Map.of();
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private final AtomicBoolean refreshRequested = new AtomicBoolean();
+
+	public FilterService(SubjectClientService subjectClientService, PublisherService publisherService, @Qualifier(JDBC_SCHEDULER) Scheduler jdbcScheduler) {
+		this.subjectClientService = subjectClientService;
+		this.publisherService = publisherService;
+		this.jdbcScheduler = jdbcScheduler;
+	}
 
 	private static final List<SubjectRsp> SUBJECTS = List.of(
 		new SubjectRsp("LANGUAGES", List.of(
@@ -110,13 +138,62 @@ public class FilterService {
 		))
 	);
 
+	/**
+	 * Never waits for the publishers: until a refresh has completed, the filters are served without subjects
+	 * and a refresh is started in the background (unless one is running already).
+	 */
 	public FiltersRsp getFiltersList() {
-		return new FiltersRsp(getSubjectsList(),
+		FiltersRsp current = filters.get();
+		if (current != null) {
+			return current;
+		}
+		if (!refreshing.get()) {
+			refresh();
+		}
+		return build(getPublishers(), Set.of());
+	}
+
+	/**
+	 * Rebuilds the filters without blocking the caller. A refresh requested while another one is running
+	 * starts once that one has finished, so no publisher change is missed.
+	 * If the subjects cannot be loaded, the previous filters are kept.
+	 */
+	public void refresh() {
+		refreshRequested.set(true);
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		//cleared before rebuilding, a request arriving during the rebuild triggers another one
+		refreshRequested.set(false);
+		load()
+			.doFinally(signal -> {
+				refreshing.set(false);
+				if (refreshRequested.get()) {
+					refresh();
+				}
+			})
+			.subscribe(filters::set, e -> log.warn("Refreshing filters failed, keeping the previous ones", e));
+	}
+
+	private Mono<FiltersRsp> load() {
+		return Mono.fromCallable(publisherService::getActivePublishers)
+			.subscribeOn(jdbcScheduler)
+			.flatMap(publishers -> subjectClientService.subjects(publishers)
+				.map(subjects -> build(publishers, mergeSubjects(publishers, subjects))));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPublisherChanged(PublisherChangedEvent event) {
+		refresh();
+	}
+
+	private FiltersRsp build(List<PublisherRsp> publishers, Set<String> subjects) {
+		return new FiltersRsp(getSubjectsList(subjects),
 			getMediaTypesList(),
 			getLearningResourceTypesList(),
 			getSchoolTypes(),
 			getStudyYear(),
-			getPublishers(),
+			publishers,
 			getFederalStates(),
 			getSchoolBooks(),
 			getGrade(),
@@ -124,23 +201,30 @@ public class FilterService {
 		);
 	}
 
+	/**
+	 * Subjects of the active publishers, publishers missing in the response keep their last known subjects.
+	 *
+	 * @return names of all subjects
+	 */
+	private Set<String> mergeSubjects(List<PublisherRsp> publishers, Map<Long, List<SubjectType>> subjects) {
+		Map<Long, List<SubjectType>> previous = publisherSubjects;
+		Map<Long, List<SubjectType>> merged = new HashMap<>();
+		publishers.forEach(publisher -> merged.put(publisher.getDecryptedId(),
+			subjects.getOrDefault(publisher.getDecryptedId(), previous.getOrDefault(publisher.getDecryptedId(), List.of()))));
+		publisherSubjects = merged;
+		return merged.values().stream().flatMap(List::stream).map(SubjectType::getName).collect(Collectors.toSet());
+	}
+
 	/**
 	 * Takes an intersection of two lists of subjects.
 	 * Former - static, predefined, and latter - merged list of subjects from all api /subject resources
 	 *
 	 * @return list of subjects
 	 */
-	private List<SubjectRsp> getSubjectsList() {
-
-		List<PublisherRsp> publishers = publisherService.getActivePublishers();
-		Set<String> subjectsRsp = subjectClientService.subjects(publishers).stream().distinct().map(SubjectType::getName).collect(Collectors.toSet());
-
-		ArrayList<SubjectRsp> supportedSubjectsList = new ArrayList<>(SUBJECTS);
-		supportedSubjectsList.forEach(subject -> {
-			List<Subject> filteredItems = subject.getItems().stream().filter(s -> subjectsRsp.contains(s.getLtiValue())).toList();
-			subject.setItems(filteredItems);
-		});
-		return supportedSubjectsList;
+	private List<SubjectRsp> getSubjectsList(Set<String> subjectsRsp) {
+		return SUBJECTS.stream()
+			.map(subject -> new SubjectRsp(subject.getLabel(), subject.getItems().stream().filter(s -> subjectsRsp.contains(s.getLtiValue())).toList()))
+			.toList();
 	}
 
 	private List<String> getMediaTypesList() {
@@ -24,13 +24,15 @@ package de.cornelsen.nep.service;
 
 import de.cornelsen.nep.mapper.ResourceTypeMapper;
 import de.cornelsen.nep.model.dto.history.HistorySearchReq;
+import de.cornelsen.nep.model.dto.page.KeysetCursor;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
 import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
 import de.cornelsen.nep.model.entity.HistorySearch;
 import de.cornelsen.nep.repository.HistorySearchRepository;
 import de.cornelsen.nep.service.client.SearchClientService;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import de.cornelsen.nep.util.SecurityUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -40,7 +42,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -51,28 +52,26 @@ public class HistorySearchService extends CommonSearchService {
 
 	private final ResourceTypeMapper resourceTypeMapper;
 	private final HistorySearchRepository historySearchRepository;
+	private final HistoryWriter historyWriter;
 
-	public HistorySearchService(PublisherService publisherService, SearchClientService resourceClientService, ResourceTypeMapper resourceTypeMapper, HistorySearchRepository historySearchRepository) {
-		super(publisherService, resourceClientService);
+	public HistorySearchService(PublisherService publisherService, SearchClientService resourceClientService, IdCodec idCodec, ResourceTypeMapper resourceTypeMapper, HistorySearchRepository historySearchRepository, HistoryWriter historyWriter) {
+		super(publisherService, resourceClientService, idCodec);
 		this.resourceTypeMapper = resourceTypeMapper;
 		this.historySearchRepository = historySearchRepository;
+		this.historyWriter = historyWriter;
 	}
 
-	@Transactional
+	/**
+	 * The click is written in the background by {@link HistoryWriter}.
+	 */
 	public void addHistorySearch(HistorySearchReq req) {
 		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
-		Long publisherIdDecrypted = CryptoUtils.decrypt(req.getPublisherId());
+		Long publisherIdDecrypted = idCodec.decode(req.getPublisherId());
 		//validate if publisher exists
 		publisherService.getPublisher(publisherIdDecrypted);
 
-		HistorySearch historySearch = historySearchRepository.findByUserIdAndItemIdAndPublisherId(currentUserId, req.getId(), publisherIdDecrypted).orElse(new HistorySearch());
-		historySearch.setCreatedAt(LocalDateTime.now());
-		historySearch.setUserId(currentUserId);
-		historySearch.setItemId(req.getId());
-		historySearch.setPublisherId(publisherIdDecrypted);
-
-		historySearchRepository.save(historySearch);
-		log.info("History search added: {}", historySearch);
+		historyWriter.recordSearch(currentUserId, publisherIdDecrypted, req.getId());
+		log.info("History search added, publisherId: {}, itemId: {}, userId: {}", publisherIdDecrypted, req.getId(), currentUserId);
 	}
 
 	@Transactional(readOnly = true)
@@ -105,4 +104,25 @@ public class HistorySearchService extends CommonSearchService {
 
 		return new PageImpl<>(sortedResultList, pageable, totalElementsCount.get());
 	}
+
+	/**
+	 * Recently opened items, continuing after the given cursor.
+	 */
+	@Transactional(readOnly = true)
+	public KeysetPage<ResourceTypeDto> getHistorySearch(String cursor, int size) {
+		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
+
+		List<HistorySearch> historySearch = KeysetCursor.decode(cursor, idCodec)
+			.map(position -> historySearchRepository.findAllByUserIdBefore(currentUserId, position.getTimestamp(), position.getId(), size + 1))
+			.orElseGet(() -> historySearchRepository.findAllByUserIdOrderByCreatedAtDescIdDesc(currentUserId, PageRequest.ofSize(size + 1)));
+
+		return KeysetPage.of(historySearch, size, history -> new KeysetCursor(history.getCreatedAt(), history.getId()).encode(idCodec), page -> {
+			Map<ItemKey, ResourceTypeDto> results = resolve(page.stream().map(history -> new ItemKey(history.getPublisherId(), history.getItemId())).toList(), searchReq -> {
+			}, resourceTypeMapper::toDto);
+			return page.stream()
+				.map(history -> results.get(new ItemKey(history.getPublisherId(), history.getItemId())))
+				.filter(Objects::nonNull)
+				.toList();
+		});
+	}
 }
@@ -23,18 +23,21 @@
 package de.cornelsen.nep.service;
 
 import de.cornelsen.nep.model.dto.history.HistorySubjectReq;
+import de.cornelsen.nep.model.dto.page.KeysetCursor;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.search.Subject;
 import de.cornelsen.nep.model.entity.HistorySubject;
 import de.cornelsen.nep.repository.HistorySubjectRepository;
 import de.cornelsen.nep.util.SecurityUtils;
+import de.cornelsen.nep.util.IdCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -43,8 +46,12 @@ import java.util.List;
 public class HistorySubjectService {
 
 	private final HistorySubjectRepository historySubjectRepository;
+	private final HistoryWriter historyWriter;
+	private final IdCodec idCodec;
 
-	@Transactional
+	/**
+	 * The click is written in the background by {@link HistoryWriter}.
+	 */
 	public void addHistorySubject(HistorySubjectReq req) {
 		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
 
@@ -56,13 +63,8 @@ public class HistorySubjectService {
 			throw new IllegalArgumentException("errors.wrongValue");
 		}
 
-		HistorySubject historySubject = historySubjectRepository.findByUserIdAndKey(currentUserId, req.getKey()).orElse(new HistorySubject());
-		historySubject.setCreatedAt(LocalDateTime.now());
-		historySubject.setUserId(currentUserId);
-		historySubject.setKey(req.getKey());
-
-		historySubjectRepository.save(historySubject);
-		log.info("Subject history added: {}", historySubject);
+		historyWriter.recordSubject(currentUserId, req.getKey());
+		log.info("Subject history added, key: {}, userId: {}", req.getKey(), currentUserId);
 	}
 
 	@Transactional(readOnly = true)
@@ -73,4 +75,19 @@ public class HistorySubjectService {
 		log.info("Users: {} history subject list: {}", currentUserId, historySubjectList);
 		return historySubjectList.stream().map(history -> Subject.valueOf(history.getKey())).toList();
 	}
+
+	/**
+	 * Recently opened subjects, continuing after the given cursor.
+	 */
+	@Transactional(readOnly = true)
+	public KeysetPage<Subject> getHistorySubject(String cursor, int size) {
+		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
+
+		List<HistorySubject> historySubjectList = KeysetCursor.decode(cursor, idCodec)
+			.map(position -> historySubjectRepository.findAllByUserIdBefore(currentUserId, position.getTimestamp(), position.getId(), size + 1))
+			.orElseGet(() -> historySubjectRepository.findAllByUserIdOrderByCreatedAtDescIdDesc(currentUserId, PageRequest.ofSize(size + 1)));
+
+		return KeysetPage.of(historySubjectList, size, history -> new KeysetCursor(history.getCreatedAt(), history.getId()).encode(idCodec),
+			page -> page.stream().map(history -> Subject.valueOf(history.getKey())).toList());
+	}
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.repository.HistorySearchRepository;
+import de.cornelsen.nep.repository.HistorySubjectRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Records the clicks of the users into their history write-behind, so the database is not on the click path.
+ * Clicks are collected in memory, repeated clicks of a user on the same item (subject) are merged, and the pending clicks
+ * are written by one upsert per batch, see {@link #flush()}. Once the buffer is full, further clicks are written right away,
+ * which slows down the callers instead of losing clicks.
+ * A batch failing for good (e.g. a constraint violation) is split until the offending clicks are isolated and dropped,
+ * any other failure requeues the batch.
+ */
+@Slf4j
+@Component
+public class HistoryWriter {
+
+	public static final String METRIC_PREFIX = "history.writer";
+
+	private final boolean writeBehind;
+	private final Buffer<SearchKey> searches;
+	private final Buffer<SubjectKey> subjects;
+
+	public HistoryWriter(HistorySearchRepository historySearchRepository, HistorySubjectRepository historySubjectRepository, ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+		ApplicationConfiguration.History config = applicationConfiguration.getHistory();
+		this.writeBehind = config.isWriteBehind();
+		this.searches = new Buffer<>("search", config, meterRegistry, batch -> {
+			List<SearchKey> keys = List.copyOf(batch.keySet());
+			historySearchRepository.upsert(keys.stream().map(SearchKey::userId).toList(), keys.stream().map(SearchKey::publisherId).toList(),
+				keys.stream().map(SearchKey::itemId).toList(), keys.stream().map(batch::get).toList());
+		});
+		this.subjects = new Buffer<>("subject", config, meterRegistry, batch -> {
+			List<SubjectKey> keys = List.copyOf(batch.keySet());
+			historySubjectRepository.upsert(keys.stream().map(SubjectKey::userId).toList(), keys.stream().map(SubjectKey::key).toList(),
+				keys.stream().map(batch::get).toList());
+		});
+	}
+
+	public void recordSearch(String userId, Long publisherId, String itemId) {
+		record(searches, new SearchKey(userId, publisherId, itemId));
+	}
+
+	public void recordSubject(String userId, String key) {
+		record(subjects, new SubjectKey(userId, key));
+	}
+
+	private <K> void record(Buffer<K> buffer, K key) {
+		if (writeBehind) {
+			buffer.add(key, LocalDateTime.now());
+		} else {
+			buffer.write(Map.of(key, LocalDateTime.now()));
+		}
+	}
+
+	/**
+	 * Writes all pending clicks, triggered by the scheduler and on shutdown.
+	 */
+	public void flush() {
+		searches.flush();
+		subjects.flush();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		log.info("Flushing pending history on shutdown, search: {}, subject: {}", searches.pending.size(), subjects.pending.size());
+		flush();
+	}
+
+	private record SearchKey(String userId, Long publisherId, String itemId) {
+	}
+
+	private record SubjectKey(String userId, String key) {
+	}
+
+	/**
+	 * Pending clicks of one type, latest click per key.
+	 */
+	private static final class Buffer<K> {
+
+		private final String type;
+		private final int capacity;
+		private final int batchSize;
+		private final Consumer<Map<K, LocalDateTime>> upsert;
+		private final Map<K, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+		private final Counter buffered;
+		private final Counter merged;
+		private final Counter overflow;
+		private final Counter failed;
+		private final Counter dropped;
+		private final Timer upsertTimer;
+		private final DistributionSummary batchSizes;
+
+		Buffer(String type, ApplicationConfiguration.History config, MeterRegistry meterRegistry, Consumer<Map<K, LocalDateTime>> upsert) {
+			this.type = type;
+			this.capacity = config.getCapacity();
+			this.batchSize = config.getBatchSize();
+			this.upsert = upsert;
+			Gauge.builder(METRIC_PREFIX + ".pending", pending, Map::size)
+				.description("Clicks waiting to be written")
+				.tag("type", type)
+				.register(meterRegistry);
+			this.buffered = clicks(meterRegistry, "buffered");
+			this.merged = clicks(meterRegistry, "merged");
+			this.overflow = clicks(meterRegistry, "overflow");
+			this.failed = Counter.builder(METRIC_PREFIX + ".failed")
+				.description("Clicks which could not be written, requeued unless the buffer is full")
+				.tag("type", type)
+				.register(meterRegistry);
+			this.dropped = Counter.builder(METRIC_PREFIX + ".dropped")
+				.description("Clicks which can never be written, e.g. violating a constraint")
+				.tag("type", type)
+				.register(meterRegistry);
+			this.upsertTimer = Timer.builder(METRIC_PREFIX + ".upsert")
+				.description("Duration of the upsert of a batch")
+				.tag("type", type)
+				.register(meterRegistry);
+			this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch")
+				.description("Number of clicks written by an upsert")
+				.tag("type", type)
+				.register(meterRegistry);
+		}
+
+		private Counter clicks(MeterRegistry meterRegistry, String result) {
+			return Counter.builder(METRIC_PREFIX + ".clicks")
+				.description("Recorded clicks: buffered, merged with a pending click of the same key, or written right away since the buffer was full")
+				.tags("type", type, "result", result)
+				.register(meterRegistry);
+		}
+
+		void add(K key, LocalDateTime createdAt) {
+			if (pending.size() >= capacity && !pending.containsKey(key)) {
+				overflow.increment();
+				write(Map.of(key, createdAt));
+				return;
+			}
+			if (pending.putIfAbsent(key, createdAt) == null) {
+				buffered.increment();
+			} else {
+				pending.merge(key, createdAt, Buffer::latest);
+				merged.increment();
+			}
+		}
+
+		synchronized void flush() {
+			Map<K, LocalDateTime> batch = new LinkedHashMap<>();
+			for (K key : pending.keySet()) {
+				LocalDateTime createdAt = pending.remove(key);
+				if (createdAt != null) {
+					batch.put(key, createdAt);
+				}
+				if (batch.size() == batchSize) {
+					write(batch);
+					batch = new LinkedHashMap<>();
+				}
+			}
+			if (!batch.isEmpty()) {
+				write(batch);
+			}
+		}
+
+		void write(Map<K, LocalDateTime> batch) {
+			try {
+				upsertTimer.record(() -> upsert.accept(batch));
+				batchSizes.record(batch.size());
+			} catch (NonTransientDataAccessException e) {
+				if (batch.size() == 1) {
+					dropped.increment();
+					log.warn("History {} click {} dropped, due to: {}", type, batch.keySet(), e.getMessage());
+					return;
+				}
+				//retrying will not help, the halves are written on their own to keep the valid clicks
+				List<Map.Entry<K, LocalDateTime>> entries = new ArrayList<>(batch.entrySet());
+				write(toMap(entries.subList(0, entries.size() / 2)));
+				write(toMap(entries.subList(entries.size() / 2, entries.size())));
+			} catch (RuntimeException e) {
+				failed.increment(batch.size());
+				log.warn("History {} of {} clicks could not be written, due to: {}", type, batch.size(), e.getMessage());
+				batch.forEach((key, createdAt) -> {
+					if (pending.size() < capacity) {
+						pending.merge(key, createdAt, Buffer::latest);
+					}
+				});
+			}
+		}
+
+		private static <K> Map<K, LocalDateTime> toMap(List<Map.Entry<K, LocalDateTime>> entries) {
+			Map<K, LocalDateTime> batch = new LinkedHashMap<>();
+			entries.forEach(entry -> batch.put(entry.getKey(), entry.getValue()));
+			return batch;
+		}
+
+		private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+			return a.isAfter(b) ? a : b;
+		}
+	}
+}
@@ -29,7 +29,7 @@ import de.cornelsen.nep.model.dto.news.NewsRsp;
 import de.cornelsen.nep.model.dto.news.NewsUpdateReq;
 import de.cornelsen.nep.model.entity.News;
 import de.cornelsen.nep.repository.NewsRepository;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import de.cornelsen.nep.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +49,7 @@ public class NewsService {
 
 	private final NewsMapper newsMapper;
 	private final NewsRepository newsRepository;
+	private final IdCodec idCodec;
 
 	@Transactional(readOnly = true)
 	public Page<NewsRsp> getNews(Pageable pageable) {
@@ -57,7 +58,7 @@ public class NewsService {
 
 	@Transactional(readOnly = true)
 	public NewsRsp getNewsDetails(String id) {
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 		NewsRsp newsRsp = newsRepository.findById(decryptedId).map(newsMapper::toDto).orElseThrow(NoSuchElementException::new);
 		log.info("Retrieved news: {} by id: {}", newsRsp, id);
 		return newsRsp;
@@ -85,7 +86,7 @@ public class NewsService {
 			throw new AccessDeniedException("cannotEdit");
 		}
 
-		Long decryptedId = CryptoUtils.decrypt(req.getId());
+		Long decryptedId = idCodec.decode(req.getId());
 
 		News existingNews = newsRepository.findById(decryptedId).orElseThrow(NoSuchElementException::new);
 		log.info("Found existing news: {}, by id: {}", existingNews, decryptedId);
@@ -101,7 +102,7 @@ public class NewsService {
 			throw new AccessDeniedException("cannotDelete");
 		}
 
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 
 		newsRepository.deleteById(decryptedId);
 		log.info("News deleted: {}", decryptedId);
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.mapper.PublisherMapper;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.entity.enums.PublisherStatus;
+import de.cornelsen.nep.repository.PublisherRepository;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the mapped publishers in memory, so searches neither query nor encrypt them on every request.
+ * The snapshot is replaced as a whole on publisher changes and reconciled periodically,
+ * e.g. with changes made by other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublisherRegistry implements SmartInitializingSingleton {
+
+	private final PublisherRepository publisherRepository;
+	private final PublisherMapper publisherMapper;
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+	private final AtomicLong generations = new AtomicLong();
+
+	/**
+	 * @return active publishers ordered by name
+	 */
+	public List<PublisherRsp> getActivePublishers() {
+		return snapshot().active();
+	}
+
+	public Optional<PublisherRsp> getPublisher(Long id) {
+		return Optional.ofNullable(snapshot().byId().get(id));
+	}
+
+	/**
+	 * @return publishers of any status with the given ids
+	 */
+	public List<PublisherRsp> getById(Set<Long> ids) {
+		Map<Long, PublisherRsp> byId = snapshot().byId();
+		return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		try {
+			reload();
+		} catch (RuntimeException e) {
+			log.warn("Loading publishers failed, retrying on first use", e);
+		}
+	}
+
+	/**
+	 * Reloaded before any other listener, they might read the publishers.
+	 */
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPublisherChanged(PublisherChangedEvent event) {
+		reload();
+	}
+
+	public void reconcile() {
+		Snapshot previous = snapshot.get();
+		Snapshot current = reload();
+		if (previous != null && !previous.sameAs(current)) {
+			log.info("Publishers changed outside of this instance, {} active publishers", current.active().size());
+		}
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = snapshot.get();
+		return current != null ? current : reload();
+	}
+
+	/**
+	 * Loads without holding a lock, as the queries would block carrier threads of virtual threads.
+	 * Every reload takes a generation before loading, so a reload started before a change was committed
+	 * cannot replace the snapshot of a later one.
+	 */
+	private Snapshot reload() {
+		long generation = generations.incrementAndGet();
+		List<PublisherRsp> active = publisherRepository.findAllByStatusIsOrderByName(PublisherStatus.ACTIVE).stream().map(publisherMapper::toDto).toList();
+		Map<Long, PublisherRsp> byId = publisherRepository.findAll().stream().map(publisherMapper::toDto)
+			.collect(Collectors.toUnmodifiableMap(PublisherRsp::getDecryptedId, Function.identity()));
+		Snapshot loaded = new Snapshot(generation, active, byId);
+		return snapshot.accumulateAndGet(loaded, (current, next) -> current == null || current.generation() < next.generation() ? next : current);
+	}
+
+	private record Snapshot(long generation, List<PublisherRsp> active, Map<Long, PublisherRsp> byId) {
+
+		boolean sameAs(Snapshot other) {
+			return active.equals(other.active()) && byId.equals(other.byId());
+		}
+	}
+}
@@ -29,9 +29,11 @@ import de.cornelsen.nep.model.dto.publisher.PublisherUpdateReq;
 import de.cornelsen.nep.model.entity.Publisher;
 import de.cornelsen.nep.model.entity.enums.PublisherStatus;
 import de.cornelsen.nep.repository.PublisherRepository;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import de.cornelsen.nep.util.IdCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -47,6 +49,9 @@ public class PublisherService {
 
 	private final PublisherMapper publisherMapper;
 	private final PublisherRepository publisherRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PublisherRegistry publisherRegistry;
+	private final IdCodec idCodec;
 
 	@Transactional(readOnly = true)
 	public List<PublisherRsp> getPublishers() {
@@ -55,21 +60,18 @@ public class PublisherService {
 		return publisherMapper.toDto(publishers);
 	}
 
-	@Transactional(readOnly = true)
 	public PublisherRsp getPublisher(Long id) {
-		Publisher publisher = publisherRepository.findById(id).orElseThrow(NoSuchElementException::new);
+		PublisherRsp publisher = publisherRegistry.getPublisher(id).orElseThrow(NoSuchElementException::new);
 		log.info("Retrieved publisher: {}", publisher);
-		return publisherMapper.toDto(publisher);
+		return publisher;
 	}
 
-	@Transactional(readOnly = true)
 	public List<PublisherRsp> getActivePublishers() {
-		return publisherRepository.findAllByStatusIsOrderByName(PublisherStatus.ACTIVE).stream().map(publisherMapper::toDto).toList();
+		return publisherRegistry.getActivePublishers();
 	}
 
-	@Transactional(readOnly = true)
 	public List<PublisherRsp> getById(Set<Long> id) {
-		return publisherRepository.findAllByIdIn(id).stream().map(publisherMapper::toDto).toList();
+		return publisherRegistry.getById(id);
 	}
 
 	@Transactional
@@ -79,7 +81,9 @@ public class PublisherService {
 		publisher.setCreatedAt(LocalDateTime.now());
 		publisher.setStatus(PublisherStatus.ACTIVE);
 		log.info("Adding new publisher: {}", publisher);
-		return publisherRepository.save(publisher).getId();
+		Long id = publisherRepository.save(publisher).getId();
+		eventPublisher.publishEvent(new PublisherChangedEvent(id));
+		return id;
 	}
 
 	@Transactional
@@ -90,33 +94,37 @@ public class PublisherService {
 		publisher.setStatus(PublisherStatus.PENDING);
 		log.info("Adding new (pending) publisher: {}", publisher);
 		publisherRepository.save(publisher);
+		eventPublisher.publishEvent(new PublisherChangedEvent(publisher.getId()));
 	}
 
 
 	@Transactional
 	public PublisherRsp updatePublisher(PublisherUpdateReq publisherReq) {
-		Publisher publisher = publisherRepository.findById(CryptoUtils.decrypt(publisherReq.getId())).orElseThrow();
+		Publisher publisher = publisherRepository.findById(idCodec.decode(publisherReq.getId())).orElseThrow();
 
 		Publisher updatedPublisher = publisherMapper.toEntity(publisherReq, publisher);
 		updatedPublisher.setUpdatedAt(LocalDateTime.now());
 		publisherRepository.save(updatedPublisher);
 		log.info("Updated publisher: {}", updatedPublisher);
+		eventPublisher.publishEvent(new PublisherChangedEvent(updatedPublisher.getId()));
 
 		return publisherMapper.toDto(updatedPublisher);
 	}
 
 	@Transactional
 	public void deletePublisher(String id) {
-		Publisher publisher = publisherRepository.findById(CryptoUtils.decrypt(id)).orElseThrow();
+		Publisher publisher = publisherRepository.findById(idCodec.decode(id)).orElseThrow();
 		publisherRepository.delete(publisher);
 		log.info("Removed publisher: {}", publisher);
+		eventPublisher.publishEvent(new PublisherChangedEvent(publisher.getId()));
 	}
 
 	@Transactional
 	public PublisherRsp acceptPublisher(String id) {
-		Publisher publisher = publisherRepository.findById(CryptoUtils.decrypt(id)).orElseThrow();
+		Publisher publisher = publisherRepository.findById(idCodec.decode(id)).orElseThrow();
 		publisher.setStatus(PublisherStatus.ACTIVE);
 		log.info("Accepted publisher: {}", publisher);
+		eventPublisher.publishEvent(new PublisherChangedEvent(publisher.getId()));
 		return publisherMapper.toDto(publisher);
 	}
 }
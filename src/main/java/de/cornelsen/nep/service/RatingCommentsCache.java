@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
+import de.cornelsen.nep.model.dto.rating.RatingRsp;
+import de.cornelsen.nep.service.event.RatingChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the first comments page of items (of the default page size), which is requested whenever the details of an item are opened.
+ * Per item there is a page for every star filter, at most 32. Entries of an item are dropped once a rating of the item was written.
+ */
+@Slf4j
+@Component
+public class RatingCommentsCache {
+
+	public static final String CACHE_NAME = "rating-comments-cache";
+
+	private final boolean enabled;
+	private final Cache<Item, Map<Variant, KeysetPage<RatingRsp.Comment>>> cache;
+
+	public RatingCommentsCache(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+		ApplicationConfiguration.CommentsCache config = applicationConfiguration.getCommentsCache();
+		this.enabled = config.isEnabled();
+		this.cache = Caffeine.newBuilder()
+			.expireAfterWrite(config.getTtl())
+			.maximumSize(config.getMaximumSize())
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public KeysetPage<RatingRsp.Comment> get(Item item, Variant variant, Supplier<KeysetPage<RatingRsp.Comment>> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		//pages loaded while the item gets invalidated end up in the detached map, hence are never served
+		Map<Variant, KeysetPage<RatingRsp.Comment>> pages = cache.get(item, key -> new ConcurrentHashMap<>());
+		KeysetPage<RatingRsp.Comment> cached = pages.get(variant);
+		if (cached != null) {
+			log.debug("Rating comments cache hit: {} {}", item, variant);
+			return cached;
+		}
+		KeysetPage<RatingRsp.Comment> page = loader.get();
+		pages.put(variant, page);
+		return page;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRatingChanged(RatingChangedEvent event) {
+		cache.invalidate(new Item(event.publisherId(), event.itemId()));
+		log.debug("Rating comments cache invalidated for item: {} {}", event.publisherId(), event.itemId());
+	}
+
+	/**
+	 * @param publisherId (decrypted) id of the publisher
+	 * @param itemId      id of the item at the publisher
+	 */
+	public record Item(Long publisherId, String itemId) {
+	}
+
+	/**
+	 * @param ratings stars the comments are filtered by, empty for all
+	 */
+	public record Variant(Set<Short> ratings) {
+	}
+}
@@ -22,8 +22,11 @@
 
 package de.cornelsen.nep.service;
 
+import de.cornelsen.nep.configuration.ApplicationConst;
 import de.cornelsen.nep.mapper.RatingMapper;
 import de.cornelsen.nep.model.dto.UserDetails;
+import de.cornelsen.nep.model.dto.page.KeysetCursor;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
 import de.cornelsen.nep.model.dto.rating.RatingCreateReq;
 import de.cornelsen.nep.model.dto.rating.RatingEditReq;
 import de.cornelsen.nep.model.dto.rating.RatingOwnRsp;
@@ -31,12 +34,16 @@ import de.cornelsen.nep.model.dto.rating.RatingRsp;
 import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
 import de.cornelsen.nep.model.entity.Rating;
+import de.cornelsen.nep.model.entity.RatingSummary;
 import de.cornelsen.nep.repository.RatingRepository;
+import de.cornelsen.nep.repository.RatingSummaryRepository;
+import de.cornelsen.nep.service.event.RatingChangedEvent;
 import de.cornelsen.nep.service.client.SearchClientService;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
 import de.cornelsen.nep.util.SecurityUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -57,29 +64,36 @@ public class RatingService extends CommonSearchService {
 
 	private final RatingMapper ratingMapper;
 	private final RatingRepository ratingRepository;
+	private final RatingSummaryRepository ratingSummaryRepository;
+	private final RatingCommentsCache ratingCommentsCache;
+	private final ApplicationEventPublisher eventPublisher;
 
-	public RatingService(PublisherService publisherService, SearchClientService resourceClientService, RatingMapper ratingMapper, RatingRepository ratingRepository) {
-		super(publisherService, resourceClientService);
+	public RatingService(PublisherService publisherService, SearchClientService resourceClientService, IdCodec idCodec, RatingMapper ratingMapper, RatingRepository ratingRepository, RatingSummaryRepository ratingSummaryRepository, RatingCommentsCache ratingCommentsCache, ApplicationEventPublisher eventPublisher) {
+		super(publisherService, resourceClientService, idCodec);
 		this.ratingMapper = ratingMapper;
 		this.ratingRepository = ratingRepository;
+		this.ratingSummaryRepository = ratingSummaryRepository;
+		this.ratingCommentsCache = ratingCommentsCache;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Transactional(readOnly = true)
 	public RatingRsp getItemRating(String encryptedPublisherId, String itemId, short[] rating, Pageable pageable) {
-		Long publisherId = CryptoUtils.decrypt(encryptedPublisherId);
+		Long publisherId = idCodec.decode(encryptedPublisherId);
 
 		var result = new RatingRsp();
 
-		ratingRepository.countItemRatings(publisherId, itemId).forEach(rate -> result.getVotes().put(Integer.valueOf(rate.getRate()), rate.getTotal()));
-
-		long totalRatings = ratingRepository.countTotalRatings(publisherId, itemId);
-		result.setTotalRatingsCount(totalRatings);
-
-		long emptyRatings = ratingRepository.countEmptyRatings(publisherId, itemId);
-		result.setEmptyRatings(emptyRatings);
+		ratingSummaryRepository.findById(new RatingSummary.Key(publisherId, itemId)).ifPresent(summary -> {
+			result.getVotes().putAll(summary.getVotes());
+			result.setTotalRatingsCount(summary.getTotal());
+			result.setEmptyRatings(summary.getEmptyRatings());
+		});
 
-		boolean all = rating.length == 0 || rating[0] == 0;
-		Page<RatingRsp.Comment> comments = ratingRepository.findAllByPublisherIdAndItemIdAndRating(publisherId, itemId, rating, all, pageable).map(ratingMapper::toDto);
+		Set<Short> stars = stars(rating);
+		Page<Rating> ratings = stars.isEmpty()
+			? ratingRepository.findAllByPublisherIdAndItemId(publisherId, itemId, pageable)
+			: ratingRepository.findAllByPublisherIdAndItemIdAndRatingIn(publisherId, itemId, stars, pageable);
+		Page<RatingRsp.Comment> comments = ratings.map(ratingMapper::toDto);
 		result.setComments(comments);
 
 		Optional<UserDetails> userDetailsOptional = SecurityUtils.currentUser();
@@ -92,6 +106,30 @@ public class RatingService extends CommonSearchService {
 		return result;
 	}
 
+	/**
+	 * Comments of the item most recently modified first, continuing after the given cursor.
+	 * The first page of the default size is served from {@link RatingCommentsCache}.
+	 */
+	@Transactional(readOnly = true)
+	public KeysetPage<RatingRsp.Comment> getComments(String encryptedPublisherId, String itemId, short[] rating, String cursor, int size) {
+		Long publisherId = idCodec.decode(encryptedPublisherId);
+		Set<Short> stars = stars(rating);
+
+		Optional<KeysetCursor> position = KeysetCursor.decode(cursor, idCodec);
+		if (position.isPresent() || size != ApplicationConst.DEFAULT_PAGE_SIZE) {
+			return findComments(publisherId, itemId, stars, position.orElse(KeysetCursor.START), size);
+		}
+		return ratingCommentsCache.get(new RatingCommentsCache.Item(publisherId, itemId), new RatingCommentsCache.Variant(stars),
+			() -> findComments(publisherId, itemId, stars, KeysetCursor.START, size));
+	}
+
+	private KeysetPage<RatingRsp.Comment> findComments(Long publisherId, String itemId, Set<Short> stars, KeysetCursor position, int size) {
+		List<Rating> ratings = stars.isEmpty()
+			? ratingRepository.findCommentsBefore(publisherId, itemId, position.getTimestamp(), position.getId(), size + 1)
+			: ratingRepository.findCommentsBefore(publisherId, itemId, stars, position.getTimestamp(), position.getId(), size + 1);
+		return KeysetPage.of(ratings, size, comment -> new KeysetCursor(comment.getModifiedAt(), comment.getId()).encode(idCodec), ratingMapper::toDto);
+	}
+
 	@Transactional
 	public void rateItem(RatingCreateReq req) {
 		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
@@ -104,6 +142,8 @@ public class RatingService extends CommonSearchService {
 		rating.setModifiedAt(rating.getCreatedAt());
 		rating.setUserId(currentUserId);
 		ratingRepository.save(rating);
+		updateSummary(rating, 1);
+		eventPublisher.publishEvent(new RatingChangedEvent(rating.getPublisherId(), rating.getItemId()));
 	}
 
 	@Transactional(readOnly = true)
@@ -145,23 +185,48 @@ public class RatingService extends CommonSearchService {
 		return new PageImpl<>(sortedResult, pageable, totalElementsCount.get());
 	}
 
+	/**
+	 * Own ratings most recently modified first, continuing after the given cursor.
+	 */
+	@Transactional(readOnly = true)
+	public KeysetPage<RatingOwnRsp> getOwnRatings(String cursor, int size) {
+		String currentUserId = SecurityUtils.currentUser().orElseThrow().getSub();
+
+		List<Rating> ratings = KeysetCursor.decode(cursor, idCodec)
+			.map(position -> ratingRepository.findAllByUserIdBefore(currentUserId, position.getTimestamp(), position.getId(), size + 1))
+			.orElseGet(() -> ratingRepository.findAllByUserIdOrderByModifiedAtDescIdDesc(currentUserId, PageRequest.ofSize(size + 1)));
+
+		return KeysetPage.of(ratings, size, rating -> new KeysetCursor(rating.getModifiedAt(), rating.getId()).encode(idCodec), page -> {
+			Map<ItemKey, RatingOwnRsp> results = resolve(page.stream().map(rating -> new ItemKey(rating.getPublisherId(), rating.getItemId())).toList(), searchReq -> {
+			}, ratingMapper::toDto);
+			return page.stream()
+				.flatMap(rating -> Optional.ofNullable(results.get(new ItemKey(rating.getPublisherId(), rating.getItemId()))).stream()
+					.peek(rate -> rate.setMyRating(ratingMapper.toDtoOwn(rating))))
+				.toList();
+		});
+	}
+
 	@Transactional
 	public void editItemRate(RatingEditReq req) {
-		Long decryptedId = CryptoUtils.decrypt(req.getId());
+		Long decryptedId = idCodec.decode(req.getId());
 		Rating rating = ratingRepository.findById(decryptedId).orElseThrow();
 		Optional<UserDetails> currentUser = SecurityUtils.currentUser();
 		if (currentUser.isPresent() && !currentUser.get().isAdmin() && !currentUser.get().getSub().equals(rating.getUserId())) {
 			log.warn("Resource cannot be edited, id: {}, user: {}", decryptedId, currentUser);
 			throw new AccessDeniedException("cannotEdit");
 		}
+		short previousRating = rating.getRating();
+		boolean previousEmpty = rating.getText() == null;
 		rating.setText(StringUtils.isBlank(req.getText()) ? null : req.getText());
 		rating.setRating(req.getRating());
 		rating.setModifiedAt(LocalDateTime.now());
+		ratingSummaryRepository.move(rating.getPublisherId(), rating.getItemId(), previousRating, previousEmpty, rating.getRating(), rating.getText() == null);
+		eventPublisher.publishEvent(new RatingChangedEvent(rating.getPublisherId(), rating.getItemId()));
 	}
 
 	@Transactional
 	public void deleteItemRate(String id) {
-		Long decryptedId = CryptoUtils.decrypt(id);
+		Long decryptedId = idCodec.decode(id);
 		Rating rating = ratingRepository.findById(decryptedId).orElseThrow();
 		Optional<UserDetails> currentUser = SecurityUtils.currentUser();
 		if (currentUser.isPresent() && !currentUser.get().isAdmin() && !currentUser.get().getSub().equals(rating.getUserId())) {
@@ -170,5 +235,28 @@ public class RatingService extends CommonSearchService {
 		}
 		log.debug("Delete item's rate: {}", rating);
 		ratingRepository.delete(rating);
+		updateSummary(rating, -1);
+		eventPublisher.publishEvent(new RatingChangedEvent(rating.getPublisherId(), rating.getItemId()));
+	}
+
+	/**
+	 * Stars requested as filter, 0 or none for all. The set is sorted, so it can be a cache key.
+	 */
+	private static Set<Short> stars(short[] rating) {
+		Set<Short> stars = new TreeSet<>();
+		for (short star : rating) {
+			if (star == 0) {
+				return Collections.emptySet();
+			}
+			stars.add(star);
+		}
+		return stars;
+	}
+
+	/**
+	 * Adds the rating to the summary of the item (count 1), or removes it (count -1).
+	 */
+	private void updateSummary(Rating rating, int count) {
+		ratingSummaryRepository.add(rating.getPublisherId(), rating.getItemId(), rating.getRating(), rating.getText() == null, count);
 	}
 }
@@ -22,91 +22,229 @@
 
 package de.cornelsen.nep.service;
 
-import de.cornelsen.nep.mapper.ResourceTypeMapper;
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.configuration.SchedulerConfiguration;
 import de.cornelsen.nep.model.dto.UserDetails;
 import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.dto.rating.ItemRatingSummary;
 import de.cornelsen.nep.model.dto.rating.RatingRsp;
 import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ResourceDetailsDto;
 import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
+import de.cornelsen.nep.model.dto.search.SearchCursor;
+import de.cornelsen.nep.model.dto.search.SearchPage;
 import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
-import de.cornelsen.nep.model.entity.Favorite;
+import de.cornelsen.nep.model.entity.RatingSummary;
 import de.cornelsen.nep.repository.FavoriteRepository;
 import de.cornelsen.nep.repository.RatingRepository;
+import de.cornelsen.nep.repository.RatingSummaryRepository;
 import de.cornelsen.nep.service.client.SearchClientService;
-import de.cornelsen.nep.util.CryptoUtils;
+import de.cornelsen.nep.util.IdCodec;
+import de.cornelsen.nep.util.MergeUtils;
+import de.cornelsen.nep.util.RelevanceRanking;
 import de.cornelsen.nep.util.SecurityUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class SearchService extends CommonSearchService {
 
-	private final ResourceTypeMapper resourceTypeMapper;
+	public static final String ENRICHMENT_TIMER = "search.enrichment";
+
 	private final RatingRepository ratingRepository;
+	private final RatingSummaryRepository ratingSummaryRepository;
+	private final ApplicationConfiguration applicationConfiguration;
+	private final Scheduler jdbcScheduler;
 	private final FavoriteRepository favoriteRepository;
+	private final Timer ratingEnrichmentTimer;
+	private final Timer userFlagsEnrichmentTimer;
 
-	public SearchService(PublisherService publisherService, SearchClientService resourceClientService, ResourceTypeMapper resourceTypeMapper, RatingRepository ratingRepository, FavoriteRepository favoriteRepository) {
-		super(publisherService, resourceClientService);
-		this.resourceTypeMapper = resourceTypeMapper;
+	public SearchService(PublisherService publisherService, SearchClientService resourceClientService, IdCodec idCodec, RatingRepository ratingRepository, RatingSummaryRepository ratingSummaryRepository, FavoriteRepository favoriteRepository,
+						 ApplicationConfiguration applicationConfiguration, @Qualifier(SchedulerConfiguration.JDBC_SCHEDULER) Scheduler jdbcScheduler, MeterRegistry meterRegistry) {
+		super(publisherService, resourceClientService, idCodec);
 		this.ratingRepository = ratingRepository;
+		this.ratingSummaryRepository = ratingSummaryRepository;
 		this.favoriteRepository = favoriteRepository;
+		this.applicationConfiguration = applicationConfiguration;
+		this.jdbcScheduler = jdbcScheduler;
+		this.ratingEnrichmentTimer = enrichmentTimer("ratings", meterRegistry);
+		this.userFlagsEnrichmentTimer = enrichmentTimer("user-flags", meterRegistry);
 	}
 
-	public Page<ResourceTypeDto> searchAndAggregate(SearchReq request, Pageable pageable) {
-		List<PublisherRsp> activePublishers = publisherService.getActivePublishers();
-		if (request.getPublisher() != null) {
-			activePublishers = activePublishers.stream().filter(p -> p.getId().equals(request.getPublisher())).toList();
-		}
+	/**
+	 * Publishers are asked without blocking, so no request thread is held during the fan-out.
+	 *
+	 * @param cursorToken cursor of the previous page, if given and still valid just the missing results are requested from the publishers
+	 */
+	public Mono<SearchPage<ResourceTypeDto>> searchAndAggregate(SearchReq request, Pageable pageable, String cursorToken) {
+		String fingerprint = SearchCursor.fingerprint(resourceClientService.canonical(request), pageable);
+		Optional<SearchCursor> cursor = SearchCursor.decode(cursorToken, idCodec).filter(c -> c.matches(fingerprint, pageable));
+		//resolved on the request thread, the security context is not available within the pipeline
+		Optional<String> userId = SecurityUtils.currentUser().map(UserDetails::getSub);
+
+		return jdbc(publisherService::getActivePublishers).flatMap(publishers -> {
+			//compared by id, the same publisher might be given in another id version
+			List<PublisherRsp> activePublishers = request.getPublisher() == null ? publishers
+				: publishers.stream().filter(p -> p.getDecryptedId().equals(idCodec.decode(request.getPublisher()))).toList();
+
+			//with a cursor every publisher is asked for one page starting behind its consumed items, otherwise for all pages up to the requested one
+			Mono<List<SearchResultWrapper>> searchResult = cursor.isPresent()
+				? resourceClientService.search(activePublishers, request, pageable, cursor.get()::getOffset, pageable.getPageSize())
+				: resourceClientService.search(activePublishers, request, pageable, publisher -> 0, (int) pageable.getOffset() + pageable.getPageSize());
+			return searchResult.map(result -> aggregate(activePublishers, result, pageable, cursor, fingerprint))
+				.flatMap(page -> enrich(activePublishers, page, userId));
+		});
+	}
 
-		AtomicLong totalElementsCount = new AtomicLong(0);
-		List<SearchResultWrapper> searchResult = resourceClientService.search(activePublishers, request, pageable);
+	/**
+	 * The details of the publisher and the ratings are read at the same time.
+	 */
+	public Mono<ResourceDetailsDto> getDetails(String encryptedPublisherId, String itemId) {
+		Long publisherId = idCodec.decode(encryptedPublisherId);
+		//resolved on the request thread, the security context is not available within the pipeline
+		Optional<String> userId = SecurityUtils.currentUser().map(UserDetails::getSub);
+
+		return Mono.zip(
+			jdbc(() -> publisherService.getPublisher(publisherId)).flatMap(publisher -> resourceClientService.details(publisher, itemId)),
+			jdbc(() -> ratingRepository.summarizeItem(publisherId, itemId, userId.orElse(null)))
+		).map(details -> {
+			ResourceDetailsDto resourceDetails = details.getT1();
+			ItemRatingSummary summary = details.getT2();
+			resourceDetails.setTotalRatingsCount(summary.getTotal());
+
+			var ratingHelperObject = new RatingRsp();
+			ratingHelperObject.getVotes().putAll(Map.of(1, summary.getVotes1(), 2, summary.getVotes2(), 3, summary.getVotes3(), 4, summary.getVotes4(), 5, summary.getVotes5()));
+			ratingHelperObject.calculateRating();
+			resourceDetails.setCurrentRating(ratingHelperObject.getRating());
+
+			resourceDetails.setFavorite(userId.isPresent() && summary.getFavorite());
+			resourceDetails.setRated(userId.isPresent() && summary.getRated());
+			return resourceDetails;
+		});
+	}
 
-		List<ResourceTypeDto> paginatedResultList = searchResult
+	private SearchPage<ResourceTypeDto> aggregate(List<PublisherRsp> activePublishers, List<SearchResultWrapper> searchResult, Pageable pageable, Optional<SearchCursor> cursor, String fingerprint) {
+		//every publisher response is already sorted, hence just merged (ordered by publisher to keep pages stable)
+		AtomicLong totalElementsCount = new AtomicLong(0);
+		List<SearchResultWrapper> sortedSearchResult = searchResult.stream().sorted(Comparator.comparing(rspWrapper -> rspWrapper.getPublisher().getName())).toList();
+		List<List<ResourceTypeDto>> publisherResults = sortedSearchResult
 			.stream()
-			.flatMap(rspWrapper -> {
+			.map(rspWrapper -> {
 				totalElementsCount.getAndAdd(rspWrapper.getTotalElements());
-				return resourceTypeMapper.toDto(rspWrapper).stream();
+				return rspWrapper.getItems();
 			})
-			.sorted(SEARCH_COMPARE.apply(SearchReq.getSorted(pageable)))
-			.skip(pageable.getOffset())
-			.limit(pageable.getPageSize())
 			.toList();
 
-		return new PageImpl<>(paginatedResultList, pageable, totalElementsCount.get());
-	}
+		Optional<SearchReq.SortBy> sortBy = SearchReq.getSorted(pageable);
+		long skip = cursor.isPresent() ? 0 : pageable.getOffset();
+		//relevance scores of different publishers are not comparable, hence ranked per publisher
+		MergeUtils.MergeResult<ResourceTypeDto> paginatedResult = sortBy.filter(SearchReq.SortBy.MOST_VIEWED::equals).isPresent()
+			? RelevanceRanking.merge(publisherResults, sortedSearchResult.stream().mapToLong(SearchResultWrapper::getOffset).toArray(), skip, pageable.getPageSize())
+			: MergeUtils.mergeSorted(publisherResults, SEARCH_COMPARE.apply(sortBy), skip, pageable.getPageSize());
+
+		Map<Long, Long> consumedItems = new LinkedHashMap<>();
+		activePublishers.forEach(publisher -> consumedItems.put(publisher.getDecryptedId(), cursor.map(c -> c.getOffset(publisher)).orElse(0L)));
+		for (int i = 0; i < sortedSearchResult.size(); i++) {
+			SearchResultWrapper rspWrapper = sortedSearchResult.get(i);
+			consumedItems.put(rspWrapper.getPublisher().getDecryptedId(), rspWrapper.getOffset() + paginatedResult.consumed()[i]);
+		}
+		String nextCursor = new SearchCursor(fingerprint, pageable.getPageNumber() + 1, consumedItems).encode(idCodec);
 
-	public ResourceDetailsDto getDetails(String encryptedPublisherId, String itemId) {
-		Long publisherId = CryptoUtils.decrypt(encryptedPublisherId);
-		Optional<UserDetails> userDetailsOptional = SecurityUtils.currentUser();
-		PublisherRsp publisher = publisherService.getPublisher(publisherId);
+		Set<String> respondedPublishers = searchResult.stream().map(rspWrapper -> rspWrapper.getPublisher().getId()).collect(Collectors.toSet());
+		List<String> omittedPublishers = activePublishers.stream().filter(publisher -> !respondedPublishers.contains(publisher.getId())).map(PublisherRsp::getName).toList();
+		if (!omittedPublishers.isEmpty()) {
+			log.info("Search result without publishers: {}", omittedPublishers);
+		}
 
-		ResourceDetailsDto resourceDetails = resourceClientService.details(publisher, itemId);
+		return new SearchPage<>(paginatedResult.items(), pageable, totalElementsCount.get(), nextCursor, omittedPublishers);
+	}
 
-		long totalRatings = ratingRepository.countTotalRatings(publisherId, itemId);
-		resourceDetails.setTotalRatingsCount(totalRatings);
+	/**
+	 * Adds local data to the items of the page: the community ratings and, for logged-in users, the favorite and rated flags.
+	 * Each is read by one query per table for the whole page, ratings and flags at the same time.
+	 * Items are copied, the results of the publishers are shared by the response cache.
+	 * Data switched off or not readable is left out.
+	 */
+	private Mono<SearchPage<ResourceTypeDto>> enrich(List<PublisherRsp> activePublishers, SearchPage<ResourceTypeDto> page, Optional<String> userId) {
+		ApplicationConfiguration.SearchEnrichment config = applicationConfiguration.getSearchEnrichment();
+		boolean userFlags = config.isUserFlags() && userId.isPresent();
+		if (page.isEmpty() || !config.isRatings() && !userFlags) {
+			return Mono.just(page);
+		}
+		Map<String, Long> publisherIds = activePublishers.stream().collect(Collectors.toMap(PublisherRsp::getId, PublisherRsp::getDecryptedId));
+		Set<Long> pagePublisherIds = page.getContent().stream().map(item -> publisherIds.get(item.getPublisherId())).filter(Objects::nonNull).collect(Collectors.toSet());
+		Set<String> itemIds = page.getContent().stream().map(ResourceTypeDto::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+
+		Mono<Map<ItemKey, RatingSummary>> ratings = !config.isRatings() ? Mono.just(Map.of())
+			: enrichment(ratingEnrichmentTimer, Map.of(), () -> ratingSummaryRepository.findAllByPublisherIdInAndItemIdIn(pagePublisherIds, itemIds).stream()
+			.collect(Collectors.toMap(summary -> new ItemKey(summary.getPublisherId(), summary.getItemId()), Function.identity())));
+		Mono<Optional<UserItems>> userItems = !userFlags ? Mono.just(Optional.empty())
+			: enrichment(userFlagsEnrichmentTimer, Optional.empty(), () -> Optional.of(new UserItems(
+			favoriteRepository.findAllByUserIdAndPublisherIdInAndItemIdIn(userId.get(), pagePublisherIds, itemIds).stream().map(favorite -> new ItemKey(favorite.getPublisherId(), favorite.getItemId())).collect(Collectors.toSet()),
+			ratingRepository.findAllByUserIdAndPublisherIdInAndItemIdIn(userId.get(), pagePublisherIds, itemIds).stream().map(rating -> new ItemKey(rating.getPublisherId(), rating.getItemId())).collect(Collectors.toSet())
+		)));
+
+		return Mono.zip(ratings, userItems).map(data -> {
+			List<ResourceTypeDto> items = page.getContent().stream().map(item -> {
+				ItemKey key = new ItemKey(publisherIds.get(item.getPublisherId()), item.getId());
+				RatingSummary summary = data.getT1().get(key);
+				boolean rated = summary != null && summary.getTotal() > 0;
+				if (!rated && data.getT2().isEmpty()) {
+					return item;
+				}
+				ResourceTypeDto enriched = item.copy();
+				if (rated) {
+					enriched.setCommunityRating(summary.getAverage());
+					enriched.setCommunityRatingsCount(summary.getTotal());
+				}
+				data.getT2().ifPresent(user -> {
+					enriched.setFavorite(user.favorites().contains(key));
+					enriched.setRated(user.rated().contains(key));
+				});
+				return enriched;
+			}).toList();
+			return new SearchPage<>(items, page.getPageable(), page.getTotalElements(), page.getCursor(), page.getOmittedPublishers());
+		});
+	}
 
-		var ratingHelperObject = new RatingRsp();
-		ratingRepository.countItemRatings(publisherId, itemId).forEach(rate -> ratingHelperObject.getVotes().put(Integer.valueOf(rate.getRate()), rate.getTotal()));
-		ratingHelperObject.calculateRating();
-		resourceDetails.setCurrentRating(ratingHelperObject.getRating());
+	private <T> Mono<T> enrichment(Timer timer, T fallback, Callable<T> query) {
+		return jdbc(() -> timer.recordCallable(query))
+			.onErrorResume(e -> {
+				log.warn("Search result without enrichment, due to: {}", e.getMessage());
+				return Mono.just(fallback);
+			});
+	}
 
-		if (userDetailsOptional.isPresent()) {
-			Optional<Favorite> favorite = favoriteRepository.findByPublisherIdAndItemIdAndUserId(publisherId, itemId, userDetailsOptional.get().getSub());
-			resourceDetails.setFavorite(favorite.isPresent());
+	private static Timer enrichmentTimer(String type, MeterRegistry meterRegistry) {
+		return Timer.builder(ENRICHMENT_TIMER)
+			.description("Enrichment of a search result page with local data")
+			.tag("type", type)
+			.register(meterRegistry);
+	}
 
-			boolean isRatedByMyself = ratingRepository.findByPublisherIdAndItemIdAndUserId(publisherId, itemId, userDetailsOptional.get().getSub()).isPresent();
-			resourceDetails.setRated(isRatedByMyself);
-		}
+	private <T> Mono<T> jdbc(Callable<T> call) {
+		return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+	}
 
-		return resourceDetails;
+	private record UserItems(Set<ItemKey> favorites, Set<ItemKey> rated) {
 	}
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single flight: concurrent calls with the same key share one in-flight call instead of calling the publisher again.
+ * The call is cancelled once the last caller cancels, and forgotten as soon as it terminates.
+ */
+class InFlightRequests<K, V> {
+
+	private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+	private final Runnable onJoined;
+
+	/**
+	 * @param onJoined invoked whenever a caller joined a call in flight, i.e. a call has been saved
+	 */
+	InFlightRequests(Runnable onJoined) {
+		this.onJoined = onJoined;
+	}
+
+	Mono<V> execute(K key, Supplier<Mono<V>> call) {
+		return Mono.defer(() -> {
+			AtomicReference<Mono<V>> created = new AtomicReference<>();
+			Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+				Mono<V> mono = call.get()
+					.doFinally(signal -> inFlight.remove(k, created.get()))
+					.flux()
+					.publish()
+					.refCount(1)
+					.next();
+				created.set(mono);
+				return mono;
+			});
+			if (created.get() == null) {
+				onJoined.run();
+			}
+			return shared;
+		});
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the elements of an array field of the root object (e.g. "resources") while the response is still being received,
+ * so just one element at a time is buffered instead of the whole response. Anything else within the response is skipped.
+ * <p>
+ * Not thread safe, one instance per response.
+ */
+class JsonArrayDecoder<T> {
+
+	private final ObjectMapper mapper;
+	private final String field;
+	private final Class<T> elementType;
+	private final JsonParser parser;
+	private final ByteArrayFeeder feeder;
+
+	private int depth;
+	private boolean fieldMatched;
+	private boolean inArray;
+	private TokenBuffer element;
+	private int elementDepth;
+
+	JsonArrayDecoder(ObjectMapper mapper, String field, Class<T> elementType) {
+		this.mapper = mapper;
+		this.field = field;
+		this.elementType = elementType;
+		try {
+			this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+	}
+
+	/**
+	 * @return elements completed by this chunk, the buffer is released
+	 */
+	List<T> decode(DataBuffer buffer) {
+		try {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			feeder.feedInput(bytes, 0, bytes.length);
+			return parse();
+		} catch (IOException e) {
+			throw Exceptions.propagate(e);
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	/**
+	 * @return elements completed by the end of the response
+	 */
+	List<T> complete() {
+		try {
+			feeder.endOfInput();
+			return parse();
+		} catch (IOException e) {
+			throw Exceptions.propagate(e);
+		}
+	}
+
+	private List<T> parse() throws IOException {
+		List<T> result = new ArrayList<>();
+		JsonToken token;
+		while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+			if (element != null) {
+				element.copyCurrentEvent(parser);
+				elementDepth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+				if (elementDepth == 0) {
+					read(result);
+				}
+			} else if (inArray) {
+				if (token == JsonToken.END_ARRAY) {
+					inArray = false;
+					depth--;
+				} else if (token != JsonToken.VALUE_NULL) {
+					element = new TokenBuffer(parser);
+					element.copyCurrentEvent(parser);
+					elementDepth = token.isStructStart() ? 1 : 0;
+					if (elementDepth == 0) {
+						read(result);
+					}
+				}
+			} else if (token == JsonToken.FIELD_NAME) {
+				fieldMatched = depth == 1 && field.equals(parser.currentName());
+			} else {
+				if (fieldMatched && token == JsonToken.START_ARRAY) {
+					inArray = true;
+				}
+				fieldMatched = false;
+				depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+			}
+		}
+		return result;
+	}
+
+	private void read(List<T> result) throws IOException {
+		try (JsonParser elementParser = element.asParser(mapper)) {
+			T value = mapper.readValue(elementParser, elementType);
+			if (value != null) {
+				result.add(value);
+			}
+		}
+		element = null;
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import de.cornelsen.nep.model.dto.request.SearchReq;
+import de.cornelsen.nep.model.dto.search.ProviderType;
+import de.cornelsen.nep.model.dto.search.ProviderValue;
+import de.cornelsen.nep.serializer.AsOrSerializer;
+import de.cornelsen.nep.serializer.CollectionSerializer;
+import de.cornelsen.nep.serializer.SearchFieldSerializer;
+import de.cornelsen.nep.util.StringUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Encodes a {@link SearchReq} into the (url encoded) LTI filter expression, e.g. subject~'Mathematik' AND publishDate='[2017, 1, 1]'.
+ * <p>
+ * The fields of the request are inspected once, following the same rules as the Jackson mapping used before:
+ * declaration order, nulls omitted, {@link AsOrSerializer} fields compared with '~', {@link JsonUnwrapped} fields inlined
+ * and {@link JsonValue} used for enums. The request itself is never modified, the provider type is passed along instead.
+ */
+@Slf4j
+@Component
+public class LtiFilterEncoder {
+
+	private static final String AND = " AND ";
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final List<Term> terms;
+	private final ThreadLocal<StringBuilder> filterBuffer = ThreadLocal.withInitial(() -> new StringBuilder(256));
+	private final ThreadLocal<StringBuilder> encodedBuffer = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+	public LtiFilterEncoder() {
+		List<Term> compiled = new ArrayList<>();
+		compile(SearchReq.class, Function.identity(), compiled);
+		this.terms = List.copyOf(compiled);
+	}
+
+	/**
+	 * @return url encoded filter expression
+	 */
+	public String encode(SearchReq request, ProviderType providerType) {
+		StringBuilder filter = filterBuffer.get();
+		filter.setLength(0);
+		for (Term term : terms) {
+			Object value = term.accessor().apply(request);
+			if (value == null) {
+				continue;
+			}
+			String formatted = term.format().apply(value, providerType);
+			if (formatted == null) {
+				continue;
+			}
+			if (!filter.isEmpty()) {
+				filter.append(AND);
+			}
+			filter.append(term.prefix()).append(StringUtil.toIndentedString(formatted)).append('\'');
+		}
+
+		StringBuilder encoded = encodedBuffer.get();
+		encoded.setLength(0);
+		urlEncode(filter, encoded);
+		if (log.isDebugEnabled()) {
+			log.debug("filter params: {} encoded: {}", filter, encoded);
+		}
+		return encoded.toString();
+	}
+
+	private static void compile(Class<?> type, Function<Object, Object> parent, List<Term> terms) {
+		for (Field field : type.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(JsonIgnore.class)) {
+				continue;
+			}
+			Function<Object, Object> accessor = nullSafe(parent, getter(field));
+			if (field.isAnnotationPresent(JsonUnwrapped.class)) {
+				compile(field.getType(), accessor, terms);
+				continue;
+			}
+			JsonProperty property = field.getAnnotation(JsonProperty.class);
+			String name = property != null && !property.value().isEmpty() ? property.value() : field.getName();
+			String prefix = name + (field.isAnnotationPresent(AsOrSerializer.class) ? "~'" : "='");
+
+			JsonSerialize serialize = field.getAnnotation(JsonSerialize.class);
+			Class<?> serializer = serialize == null ? null : serialize.using();
+			if (serializer == SearchFieldSerializer.class) {
+				terms.add(new Term(prefix, accessor, (value, providerType) -> SearchFieldSerializer.terms((String) value)));
+				terms.add(new Term(SearchFieldSerializer.DUF_FIELD_NAME + "='", accessor,
+					(value, providerType) -> ProviderType.DUF.equals(providerType) ? SearchFieldSerializer.terms((String) value) : null));
+			} else if (serializer == CollectionSerializer.class) {
+				terms.add(new Term(prefix, accessor, (value, providerType) -> CollectionSerializer.join((Collection<?>) value)));
+			} else if (serializer == null || serializer == JsonSerializer.None.class) {
+				terms.add(new Term(prefix, accessor, format(field.getType())));
+			} else {
+				throw new IllegalStateException("Unsupported serializer " + serializer.getName() + " of " + type.getSimpleName() + "." + field.getName());
+			}
+		}
+	}
+
+	private static BiFunction<Object, ProviderType, String> format(Class<?> type) {
+		if (ProviderValue.class.isAssignableFrom(type)) {
+			return (value, providerType) -> ((ProviderValue) value).getValue(providerType);
+		}
+		if (type == LocalDate.class) {
+			//dates are written as timestamp array
+			return (value, providerType) -> {
+				LocalDate date = (LocalDate) value;
+				return "[" + date.getYear() + ", " + date.getMonthValue() + ", " + date.getDayOfMonth() + "]";
+			};
+		}
+		if (type.isEnum()) {
+			Function<Object, Object> jsonValue = Stream.concat(Stream.of(type.getDeclaredFields()), Stream.of(type.getDeclaredMethods()))
+				.filter(member -> member.isAnnotationPresent(JsonValue.class))
+				.findFirst()
+				.map(LtiFilterEncoder::getter)
+				.orElse(value -> ((Enum<?>) value).name());
+			return (value, providerType) -> String.valueOf(jsonValue.apply(value));
+		}
+		return (value, providerType) -> value.toString();
+	}
+
+	private static Function<Object, Object> getter(AccessibleObject member) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(((Member) member).getDeclaringClass(), MethodHandles.lookup());
+			MethodHandle handle = member instanceof Field field ? lookup.unreflectGetter(field) : lookup.unreflect((Method) member);
+			MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+			return target -> {
+				try {
+					return getter.invokeExact(target);
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			};
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Function<Object, Object> nullSafe(Function<Object, Object> parent, Function<Object, Object> getter) {
+		return target -> {
+			Object value = parent.apply(target);
+			return value == null ? null : getter.apply(value);
+		};
+	}
+
+	//same as UriUtils.encode(value, UTF_8): everything but unreserved characters is percent encoded
+	private static void urlEncode(CharSequence value, StringBuilder target) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.' || c == '_' || c == '~') {
+				target.append(c);
+			} else if (c < 0x80) {
+				appendByte(c, target);
+			} else if (c < 0x800) {
+				appendByte(0xC0 | (c >> 6), target);
+				appendByte(0x80 | (c & 0x3F), target);
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				appendByte(0xF0 | (codePoint >> 18), target);
+				appendByte(0x80 | ((codePoint >> 12) & 0x3F), target);
+				appendByte(0x80 | ((codePoint >> 6) & 0x3F), target);
+				appendByte(0x80 | (codePoint & 0x3F), target);
+			} else if (Character.isSurrogate(c)) {
+				//unpaired surrogates are replaced like String.getBytes does
+				appendByte('?', target);
+			} else {
+				appendByte(0xE0 | (c >> 12), target);
+				appendByte(0x80 | ((c >> 6) & 0x3F), target);
+				appendByte(0x80 | (c & 0x3F), target);
+			}
+		}
+	}
+
+	private static void appendByte(int b, StringBuilder target) {
+		target.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+	}
+
+	/**
+	 * @param prefix   field name and comparison, e.g. subject~'
+	 * @param accessor reads the field value of the request
+	 * @param format   formats the (non null) value, null to omit the term
+	 */
+	private record Term(String prefix, Function<Object, Object> accessor, BiFunction<Object, ProviderType, String> format) {
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker and adaptive timeout per publisher, based on the outcome of the last calls.
+ * <ul>
+ *     <li>CLOSED: calls are permitted, the circuit opens once too many of the recent calls failed or were slow</li>
+ *     <li>OPEN: calls are skipped until the open duration has elapsed</li>
+ *     <li>HALF_OPEN: a single trial call is permitted, its outcome closes or opens the circuit again</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class PublisherHealthRegistry {
+
+	public enum State {
+		CLOSED, HALF_OPEN, OPEN
+	}
+
+	private final ApplicationConfiguration.CircuitBreaker config;
+	private final Duration requestTimeout;
+	private final MeterRegistry meterRegistry;
+	private final Map<Long, PublisherHealth> health = new ConcurrentHashMap<>();
+
+	public PublisherHealthRegistry(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+		this.config = applicationConfiguration.getCircuitBreaker();
+		this.requestTimeout = Duration.ofSeconds(applicationConfiguration.getRequestTimeout() == null ? 10 : applicationConfiguration.getRequestTimeout());
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * @return false when the publisher's circuit is open, so the publisher should not be asked at all
+	 */
+	public boolean isAvailable(PublisherRsp publisher) {
+		return health(publisher).state() != State.OPEN;
+	}
+
+	/**
+	 * @return whether a call to the publisher is permitted right now, a permitted call has to be reported by {@link #onSuccess} or {@link #onFailure}
+	 */
+	public boolean tryAcquire(PublisherRsp publisher) {
+		return health(publisher).tryAcquire();
+	}
+
+	/**
+	 * @return p99 of the recent call durations (with some headroom), at most the configured request timeout
+	 */
+	public Duration timeout(PublisherRsp publisher) {
+		return health(publisher).timeout();
+	}
+
+	public void onSuccess(PublisherRsp publisher, long durationNanos) {
+		health(publisher).record(durationNanos, false);
+	}
+
+	public void onFailure(PublisherRsp publisher, long durationNanos) {
+		health(publisher).record(durationNanos, true);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPublisherChanged(PublisherChangedEvent event) {
+		PublisherHealth removed = health.remove(event.publisherId());
+		if (removed != null) {
+			removed.meters.forEach(meterRegistry::remove);
+		}
+	}
+
+	private PublisherHealth health(PublisherRsp publisher) {
+		return health.computeIfAbsent(publisher.getDecryptedId(), id -> new PublisherHealth(publisher.getName()));
+	}
+
+	private class PublisherHealth {
+
+		private final String name;
+		private final long[] durations = new long[config.getWindowSize()];
+		private final boolean[] failures = new boolean[config.getWindowSize()];
+		private final List<Gauge> meters;
+		private int position;
+		private int calls;
+		private State state = State.CLOSED;
+		private long openedAt;
+		private boolean trialInFlight;
+		private long trialStartedAt;
+
+		PublisherHealth(String name) {
+			this.name = name;
+			this.meters = List.of(
+				Gauge.builder("publisher.circuit.state", this, h -> h.state().ordinal())
+					.description("Circuit breaker state of the publisher (0 closed, 1 half open, 2 open)")
+					.tag("publisher", name)
+					.register(meterRegistry),
+				Gauge.builder("publisher.request.timeout", this, h -> h.timeout().toMillis() / 1000.0)
+					.description("Adaptive timeout applied to calls of the publisher")
+					.tag("publisher", name)
+					.baseUnit("seconds")
+					.register(meterRegistry)
+			);
+		}
+
+		synchronized State state() {
+			if (state == State.OPEN && System.nanoTime() - openedAt >= config.getOpenDuration().toNanos()) {
+				transition(State.HALF_OPEN);
+			}
+			return state;
+		}
+
+		synchronized boolean tryAcquire() {
+			return switch (state()) {
+				case CLOSED -> true;
+				case OPEN -> false;
+				case HALF_OPEN -> {
+					//a trial call which never reported back (e.g. cancelled) must not keep the circuit half open forever
+					if (trialInFlight && System.nanoTime() - trialStartedAt < requestTimeout.toNanos()) {
+						yield false;
+					}
+					trialInFlight = true;
+					trialStartedAt = System.nanoTime();
+					yield true;
+				}
+			};
+		}
+
+		synchronized void record(long durationNanos, boolean failure) {
+			if (state == State.HALF_OPEN) {
+				trialInFlight = false;
+				if (failure) {
+					transition(State.OPEN);
+					return;
+				}
+				position = 0;
+				calls = 0;
+				transition(State.CLOSED);
+			}
+			durations[position] = durationNanos;
+			failures[position] = failure;
+			position = (position + 1) % durations.length;
+			calls = Math.min(calls + 1, durations.length);
+
+			int window = calls;
+			if (state != State.CLOSED || window < config.getMinimumCalls()) {
+				return;
+			}
+			int failed = 0;
+			int slow = 0;
+			for (int i = 0; i < window; i++) {
+				failed += failures[i] ? 1 : 0;
+				slow += durations[i] >= config.getSlowCallDuration().toNanos() ? 1 : 0;
+			}
+			if (failed >= window * config.getFailureRateThreshold() || slow >= window * config.getSlowCallRateThreshold()) {
+				log.warn("[{}] circuit opened, {} failed and {} slow of the last {} calls", name, failed, slow, window);
+				transition(State.OPEN);
+			}
+		}
+
+		synchronized Duration timeout() {
+			int window = calls;
+			if (window < config.getMinimumCalls()) {
+				return requestTimeout;
+			}
+			long[] sorted = Arrays.copyOf(durations, window);
+			Arrays.sort(sorted);
+			long p99 = sorted[(int) Math.ceil(window * 0.99) - 1];
+			long timeout = (long) (p99 * config.getTimeoutMultiplier());
+			return Duration.ofNanos(Math.max(config.getMinimumTimeout().toNanos(), Math.min(requestTimeout.toNanos(), timeout)));
+		}
+
+		private void transition(State target) {
+			if (state != target) {
+				log.info("[{}] circuit {} -> {}", name, state, target);
+			}
+			state = target;
+			if (target == State.OPEN) {
+				openedAt = System.nanoTime();
+				position = 0;
+				calls = 0;
+			}
+		}
+	}
+}
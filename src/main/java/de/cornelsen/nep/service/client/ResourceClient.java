@@ -26,29 +26,51 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.cornelsen.nep.configuration.PublisherClientConfiguration;
+import de.cornelsen.nep.model.dto.lti.ResourceSetType;
+import de.cornelsen.nep.model.dto.lti.SubjectSetType;
 import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public abstract class ResourceClient {
 
 	Logger log = LoggerFactory.getLogger(ResourceClient.class);
 
-	@Value("${application.request-timeout:10}")
-	private long requestTimeout;
+	@Autowired
+	protected PublisherHealthRegistry publisherHealthRegistry;
+
+	@Autowired
+	protected ResourceClientMetrics resourceClientMetrics;
 
 	public static final String TOTAL_ELEMENTS_PAGINATION_HEADER = "X-Total-Count";
 
+	//context key of the flag telling that the budget of the calls has run out, see withinBudget
+	private static final String BUDGET_EXHAUSTED = ResourceClient.class.getName() + ".budgetExhausted";
+
 	protected final ObjectMapper mapper = new ObjectMapper()
 		.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
 		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
@@ -56,13 +78,38 @@ public abstract class ResourceClient {
 		.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
 		.registerModule(new JavaTimeModule());
 
-	WebClient webClient = WebClient
-		.create()
-		.mutate()
-		.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) //16MB
-		.build();
+	@Autowired
+	@Qualifier(PublisherClientConfiguration.PUBLISHER_WEB_CLIENT)
+	private WebClient webClient;
+
+	protected final <T> Mono<ResponseEntity<T>> callAPI(Function<UriBuilder, URI> uriBuilder, Class<T> responseType, PublisherRsp publisher, ResourceClientMetrics.Endpoint endpoint) {
+		return orEmpty(publisher, observe(publisher, endpoint, () -> get(uriBuilder, responseType, publisher, endpoint)));
+	}
+
+	/**
+	 * Like {@link #callAPI}, but an unavailable publisher results in an error instead of an empty response:
+	 * {@code 503} for an open circuit, {@code 504} for a timeout and {@code 502} for any other failure.
+	 * Error responses of the publisher are returned with their status.
+	 */
+	protected final <T> Mono<ResponseEntity<T>> requestAPI(Function<UriBuilder, URI> uriBuilder, Class<T> responseType, PublisherRsp publisher, ResourceClientMetrics.Endpoint endpoint) {
+		return observe(publisher, endpoint, () -> get(uriBuilder, responseType, publisher, endpoint))
+			.onErrorMap(throwable -> !(throwable instanceof ResponseStatusException), throwable -> {
+				log.error("[{}] failed due to exception: {}", publisher.getName(), throwable.toString());
+				return new ResponseStatusException(throwable instanceof TimeoutException ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY,
+					"Publisher %s failed".formatted(publisher.getName()), throwable);
+			});
+	}
 
-	protected final <T> Mono<ResponseEntity<T>> callAPI(Function<UriBuilder, URI> uriBuilder, Class<T> responseType, PublisherRsp publisher) {
+	/**
+	 * Failures result in an empty response, an open circuit has been logged already.
+	 */
+	private <T> Mono<ResponseEntity<T>> orEmpty(PublisherRsp publisher, Mono<ResponseEntity<T>> call) {
+		return call
+			.doOnError(throwable -> !(throwable instanceof ResponseStatusException), throwable -> log.error("[{}] skipped due to exception: {}", publisher.getName(), throwable.toString()))
+			.onErrorReturn(ResponseEntity.ok(null));
+	}
+
+	private <T> Mono<ResponseEntity<T>> get(Function<UriBuilder, URI> uriBuilder, Class<T> responseType, PublisherRsp publisher, ResourceClientMetrics.Endpoint endpoint) {
 		return webClient.get()
 			.uri(uriBuilder)
 			.retrieve()
@@ -71,10 +118,131 @@ public abstract class ResourceClient {
 					response.bodyToMono(String.class).subscribe(body -> log.trace("Response body: {}", body));
 					return Mono.empty();
 			})
-			.toEntity(responseType)
-			.timeout(Duration.ofSeconds(requestTimeout))
-			.doOnError(throwable -> log.error("[{}] skipped due to exception: {}", publisher.getName(), throwable.toString()))
-			.onErrorReturn(ResponseEntity.ok(null));
+			.toEntity(byte[].class)
+			.map(rsp -> readEntity(rsp, responseType, publisher, endpoint));
+	}
+
+	/**
+	 * Decodes the elements of the given array field while the response is received and stops reading once enough elements have been read,
+	 * hence just the mapped elements are kept instead of the whole response.
+	 *
+	 * @param elementMapper applied to every element right after it has been decoded
+	 * @param limit         maximum number of elements to read
+	 */
+	protected final <T, E> Mono<ResponseEntity<List<E>>> streamAPI(Function<UriBuilder, URI> uriBuilder, String arrayField, Class<T> elementType, Function<T, E> elementMapper, int limit, PublisherRsp publisher, ResourceClientMetrics.Endpoint endpoint) {
+		return observe(publisher, endpoint, () -> webClient.get()
+			.uri(uriBuilder)
+			.exchangeToMono(response -> {
+				if (response.statusCode().isError()) {
+					log.error("Provider {} responded with status code: {}, headers: {}", publisher.getName(), response.statusCode(), response.headers().asHttpHeaders());
+					return response.releaseBody().thenReturn(new ResponseEntity<>(response.headers().asHttpHeaders(), response.statusCode()));
+				}
+				JsonArrayDecoder<T> decoder = new JsonArrayDecoder<>(mapper, arrayField, elementType);
+				AtomicLong bytes = new AtomicLong();
+				return response.bodyToFlux(DataBuffer.class)
+					.doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+					.concatMapIterable(decoder::decode)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(decoder.complete())))
+					.take(limit)
+					.map(elementMapper)
+					.collectList()
+					.map(items -> {
+						resourceClientMetrics.recordResponse(publisher, endpoint, bytes.get(), items.size());
+						return new ResponseEntity<>(items, response.headers().asHttpHeaders(), response.statusCode());
+					});
+			}))
+			.transform(call -> orEmpty(publisher, call));
+	}
+
+	/**
+	 * Completes with the results received within the budget, calls still in flight are cancelled and recorded as failed
+	 * with their duration so far, so a publisher answering just after the budget still counts as slow.
+	 */
+	protected static <T> Flux<T> withinBudget(Flux<T> calls, Duration budget) {
+		AtomicBoolean exhausted = new AtomicBoolean();
+		return calls
+			.takeUntilOther(Mono.delay(budget).doOnNext(tick -> exhausted.set(true)))
+			.contextWrite(context -> context.put(BUDGET_EXHAUSTED, exhausted));
+	}
+
+	/**
+	 * Applies circuit breaker, (adaptive) timeout and metrics to the call, an open circuit results in a {@code 503} error.
+	 * Calls cancelled by the budget count as failed (see {@link #withinBudget}), any other cancellation (e.g. the client left)
+	 * is just recorded in the metrics, it tells nothing about the health of the publisher.
+	 */
+	private <T> Mono<ResponseEntity<T>> observe(PublisherRsp publisher, ResourceClientMetrics.Endpoint endpoint, Supplier<Mono<ResponseEntity<T>>> call) {
+		if (!publisherHealthRegistry.tryAcquire(publisher)) {
+			log.debug("[{}] skipped due to open circuit", publisher.getName());
+			return Mono.error(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Publisher %s unavailable".formatted(publisher.getName())));
+		}
+		return Mono.deferContextual(context -> {
+				long start = System.nanoTime();
+				AtomicBoolean budgetExhausted = context.getOrDefault(BUDGET_EXHAUSTED, new AtomicBoolean());
+				//every call is reported once, a cancel may follow the response
+				AtomicBoolean reported = new AtomicBoolean();
+				return call.get()
+					.timeout(publisherHealthRegistry.timeout(publisher))
+					.doOnNext(rsp -> {
+						if (!reported.compareAndSet(false, true)) {
+							return;
+						}
+						long duration = System.nanoTime() - start;
+						resourceClientMetrics.recordCall(publisher, endpoint, rsp.getStatusCode(), duration);
+						if (rsp.getStatusCode().isError()) {
+							publisherHealthRegistry.onFailure(publisher, duration);
+						} else {
+							publisherHealthRegistry.onSuccess(publisher, duration);
+						}
+					})
+					.doOnError(throwable -> {
+						if (!reported.compareAndSet(false, true)) {
+							return;
+						}
+						long duration = System.nanoTime() - start;
+						publisherHealthRegistry.onFailure(publisher, duration);
+						if (throwable instanceof TimeoutException) {
+							resourceClientMetrics.recordTimeout(publisher, endpoint);
+						} else {
+							resourceClientMetrics.recordCall(publisher, endpoint, ResourceClientMetrics.NONE, duration);
+						}
+					})
+					.doOnCancel(() -> {
+						if (!reported.compareAndSet(false, true)) {
+							return;
+						}
+						long duration = System.nanoTime() - start;
+						boolean overBudget = budgetExhausted.get();
+						log.debug("[{}] cancelled after {} ms, budget exhausted: {}", publisher.getName(), TimeUnit.NANOSECONDS.toMillis(duration), overBudget);
+						if (overBudget) {
+							publisherHealthRegistry.onFailure(publisher, duration);
+						}
+						resourceClientMetrics.recordCall(publisher, endpoint, ResourceClientMetrics.CANCELLED, duration);
+					});
+			});
+	}
+
+	private <T> ResponseEntity<T> readEntity(ResponseEntity<byte[]> rsp, Class<T> responseType, PublisherRsp publisher, ResourceClientMetrics.Endpoint endpoint) {
+		byte[] body = rsp.getBody();
+		if (rsp.getStatusCode().isError() || body == null || body.length == 0) {
+			return new ResponseEntity<>(rsp.getHeaders(), rsp.getStatusCode());
+		}
+		try {
+			T result = mapper.readValue(body, responseType);
+			resourceClientMetrics.recordResponse(publisher, endpoint, body.length, itemCount(result));
+			return new ResponseEntity<>(result, rsp.getHeaders(), rsp.getStatusCode());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static int itemCount(Object body) {
+		if (body instanceof ResourceSetType resourceSet) {
+			return resourceSet.getResources() == null ? 0 : resourceSet.getResources().size();
+		}
+		if (body instanceof SubjectSetType subjectSet) {
+			return subjectSet.getSubjects() == null ? 0 : subjectSet.getSubjects().size();
+		}
+		return body == null ? 0 : 1;
 	}
 
 }
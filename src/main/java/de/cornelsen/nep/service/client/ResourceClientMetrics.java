@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the calls to the publishers' LTI endpoints, tagged by publisher and endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceClientMetrics {
+
+	private static final Duration[] LATENCY_SLO = {
+		Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+		Duration.ofSeconds(2), Duration.ofSeconds(4), Duration.ofSeconds(8)
+	};
+	private static final double[] SIZE_SLO = {1024, 16 * 1024, 128 * 1024, 1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024};
+	private static final double[] ITEMS_SLO = {1, 10, 50, 100, 500, 1000}; //boundaries must be positive, empty responses fall into the first bucket
+
+	private final MeterRegistry meterRegistry;
+
+	public enum Endpoint {
+		SEARCH, SUBJECTS, DETAILS
+	}
+
+	/**
+	 * Tag of calls failed without response.
+	 */
+	public static final String NONE = "none";
+
+	/**
+	 * Tag of calls cancelled before the publisher responded, e.g. since the search budget ran out or the client left.
+	 */
+	public static final String CANCELLED = "cancelled";
+
+	/**
+	 * @param status status of the response
+	 */
+	public void recordCall(PublisherRsp publisher, Endpoint endpoint, HttpStatusCode status, long durationNanos) {
+		recordCall(publisher, endpoint, (status.value() / 100) + "xx", durationNanos);
+	}
+
+	/**
+	 * @param status status class of the response (e.g. 2xx), {@link #NONE} or {@link #CANCELLED}
+	 */
+	public void recordCall(PublisherRsp publisher, Endpoint endpoint, String status, long durationNanos) {
+		Timer.builder("publisher.requests")
+			.description("Duration of the calls to the publisher")
+			.tags(tags(publisher, endpoint).and("status", status))
+			.serviceLevelObjectives(LATENCY_SLO)
+			.register(meterRegistry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void recordTimeout(PublisherRsp publisher, Endpoint endpoint) {
+		Counter.builder("publisher.requests.timeouts")
+			.description("Calls to the publisher cancelled due to the timeout")
+			.tags(tags(publisher, endpoint))
+			.register(meterRegistry)
+			.increment();
+	}
+
+	public void recordResponse(PublisherRsp publisher, Endpoint endpoint, long bytes, int items) {
+		DistributionSummary.builder("publisher.response.size")
+			.description("Size of the publisher responses")
+			.baseUnit("bytes")
+			.tags(tags(publisher, endpoint))
+			.serviceLevelObjectives(SIZE_SLO)
+			.register(meterRegistry)
+			.record(bytes);
+		DistributionSummary.builder("publisher.response.items")
+			.description("Number of items within the publisher responses")
+			.tags(tags(publisher, endpoint))
+			.serviceLevelObjectives(ITEMS_SLO)
+			.register(meterRegistry)
+			.record(items);
+	}
+
+	/**
+	 * A call has been saved, since an identical one was already in flight.
+	 */
+	public void recordCoalesced(Endpoint endpoint) {
+		Counter.builder("publisher.requests.coalesced")
+			.description("Calls to the publishers saved by joining an identical call in flight")
+			.tag("endpoint", endpoint.name().toLowerCase())
+			.register(meterRegistry)
+			.increment();
+	}
+
+	private Tags tags(PublisherRsp publisher, Endpoint endpoint) {
+		return Tags.of("publisher", publisher.getName(), "endpoint", endpoint.name().toLowerCase());
+	}
+}
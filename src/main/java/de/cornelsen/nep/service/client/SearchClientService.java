@@ -22,125 +22,173 @@
 
 package de.cornelsen.nep.service.client;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.mapper.ResourceTypeMapper;
 import de.cornelsen.nep.model.dto.lti.ResourceSetType;
+import de.cornelsen.nep.model.dto.lti.ResourceType;
 import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
 import de.cornelsen.nep.model.dto.request.SearchReq;
 import de.cornelsen.nep.model.dto.search.ProviderType;
 import de.cornelsen.nep.model.dto.search.ResourceDetailsDto;
 import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
-import de.cornelsen.nep.serializer.AsOrSerializer;
-import de.cornelsen.nep.util.StringUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.springframework.web.util.UriUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.lang.reflect.Field;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.ToLongFunction;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SearchClientService extends ResourceClient {
 
+	private static final String RESOURCES_FIELD = "resources";
+
 	private final ApplicationConfiguration applicationConfiguration;
+	private final SearchResponseCache searchResponseCache;
+	private final LtiFilterEncoder ltiFilterEncoder;
+	private final ResourceTypeMapper resourceTypeMapper;
+	private final InFlightRequests<SearchResponseCache.Key, SearchResultWrapper> inFlightSearches = new InFlightRequests<>(() -> resourceClientMetrics.recordCoalesced(ResourceClientMetrics.Endpoint.SEARCH));
 
-	public List<SearchResultWrapper> search(Map<PublisherRsp, SearchReq> request, Pageable pageable) {
-		return Flux.fromIterable(request.keySet())
-			.flatMap(resource -> callAPI(
-				applyUri(resource, request.get(resource), pageable),
-				ResourceSetType.class,
-				resource
-			).mapNotNull(applyResultAdditionalValues(resource)))
+	/**
+	 * Looks up the requested ids, every publisher is asked for exactly its ids and the search budget is not applied
+	 * (each call is still bounded by the publisher timeout). Publishers unavailable or failing are missing in the result.
+	 */
+	public Mono<List<SearchResultWrapper>> searchById(Map<PublisherRsp, SearchReq> requests, Pageable pageable) {
+		return Flux.fromIterable(requests.entrySet())
+			.filter(request -> publisherHealthRegistry.isAvailable(request.getKey()))
+			.flatMap(request -> {
+				PublisherRsp publisher = request.getKey();
+				int limit = request.getValue().getId().size();
+				return streamAPI(applyUri(publisher, encodeFilters(publisher, request.getValue()), pageable, 0, limit),
+					RESOURCES_FIELD, ResourceType.class, Function.identity(), limit, publisher, ResourceClientMetrics.Endpoint.SEARCH
+				).mapNotNull(rsp -> {
+					if (rsp.getBody() == null) {
+						return null;
+					}
+					var resourceSet = new ResourceSetType();
+					resourceSet.setResources(rsp.getBody());
+					SearchResultWrapper result = wrap(publisher, 0, rsp);
+					result.setResourceSetType(resourceSet);
+					return result;
+				});
+			})
 			.collectList()
-			.block();
+			.doOnNext(results -> {
+				if (results.size() < requests.size()) {
+					log.warn("Lookup by id incomplete, {} of {} publishers responded", results.size(), requests.size());
+				}
+			});
 	}
 
-	public List<SearchResultWrapper> search(List<PublisherRsp> publishers, SearchReq request, Pageable pageable) {
-		return Flux.fromIterable(publishers)
-			.flatMap(resource -> callAPI(
-				applyUri(resource, request, pageable),
-				ResourceSetType.class, resource).mapNotNull(applyResultAdditionalValues(resource)))
-			.collectList()
-			.block();
+	/**
+	 * Publishers which did not respond successfully within the search budget are missing in the result, calls still in flight are cancelled.
+	 *
+	 * @param offset number of items to skip per publisher (already consumed by the previous pages)
+	 * @param limit  number of items requested from every publisher
+	 */
+	public Mono<List<SearchResultWrapper>> search(List<PublisherRsp> publishers, SearchReq request, Pageable pageable, ToLongFunction<PublisherRsp> offset, int limit) {
+		return withinBudget(Flux.fromIterable(publishers)
+			.filter(publisherHealthRegistry::isAvailable)
+			.flatMap(resource -> search(resource, request, pageable, offset.applyAsLong(resource), limit)), applicationConfiguration.getSearchBudget())
+			.collectList();
 	}
 
-	public ResourceDetailsDto details(PublisherRsp publisher, String id) {
-		return callAPI(
+	/**
+	 * Stable representation of the search request: fields in declaration order, nulls omitted and collections sorted.
+	 */
+	public String canonical(SearchReq request) {
+		try {
+			return mapper.writeValueAsString(request);
+		} catch (JsonProcessingException e) {
+			log.error("Unable to serialize search request: {}, due to: {}", request, e.getMessage());
+			throw new IllegalArgumentException("errors.wrongValue");
+		}
+	}
+
+	public Mono<ResourceDetailsDto> details(PublisherRsp publisher, String id) {
+		return requestAPI(
 			uri -> UriComponentsBuilder.fromHttpUrl(publisher.getSearchUrl() + applicationConfiguration.getDetailsSuffix()).build(id),
-			ResourceDetailsDto.class, publisher
-		).onErrorResume(WebClientResponseException.class, ex -> ex.getStatusCode().is4xxClientError() ? Mono.error(() -> new NoSuchElementException("Resource %s not found".formatted(id))) : Mono.error(ex))
-			.mapNotNull(detail -> {
+			ResourceDetailsDto.class, publisher, ResourceClientMetrics.Endpoint.DETAILS
+		).map(detail -> {
+				if (detail.getStatusCode().is5xxServerError()) {
+					throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Publisher %s responded with %s".formatted(publisher.getName(), detail.getStatusCode()));
+				}
 				ResourceDetailsDto result = detail.getBody();
+				if (result == null) {
+					throw new NoSuchElementException("Resource %s not found".formatted(id));
+				}
 				result.setPublisher(publisher.getName());
 				result.setPublisherId(publisher.getId());
 				return result;
-			}).block();
+			});
+	}
+
+	/**
+	 * Resources are mapped while the response is read, the result contains just the mapped items.
+	 * Identical searches in flight (e.g. a whole class opening the same search) share the call to the publisher.
+	 */
+	private Mono<SearchResultWrapper> search(PublisherRsp publisher, SearchReq request, Pageable pageable, long offset, int limit) {
+		String filters = encodeFilters(publisher, request);
+		SearchResponseCache.Key key = new SearchResponseCache.Key(publisher.getDecryptedId(), filters,
+			SearchReq.getSorted(pageable).map(Enum::name).orElse(null), offset, limit);
+		return searchResponseCache.get(key, () -> inFlightSearches.execute(key, () -> {
+			SearchResultWrapper result = wrap(publisher, offset, null);
+			return streamAPI(applyUri(publisher, filters, pageable, offset, limit), RESOURCES_FIELD, ResourceType.class,
+				resource -> resourceTypeMapper.toDto(result, resource), limit, publisher, ResourceClientMetrics.Endpoint.SEARCH)
+				.mapNotNull(rsp -> {
+					if (rsp.getBody() == null) {
+						return null;
+					}
+					result.setItems(rsp.getBody());
+					result.setTotalElements(totalElements(rsp));
+					return result;
+				});
+		}));
 	}
 
-	private Function<UriBuilder, URI> applyUri(PublisherRsp publisher, SearchReq request, Pageable pageable) {
+	private String encodeFilters(PublisherRsp publisher, SearchReq request) {
+		ProviderType providerType = publisher.getName().equals(applicationConfiguration.getDufProviderName()) ? ProviderType.DUF : ProviderType.DEFAULT;
+		return ltiFilterEncoder.encode(request, providerType);
+	}
+
+	private Function<UriBuilder, URI> applyUri(PublisherRsp publisher, String filters, Pageable pageable, long offset, int limit) {
 		Optional<SearchReq.SortBy> sorted = SearchReq.getSorted(pageable);
 		return uri -> UriComponentsBuilder.fromHttpUrl(publisher.getSearchUrl())
 			.path(applicationConfiguration.getSearchSuffix())
-			.queryParam("limit", (pageable.getPageNumber() + 1) * pageable.getPageSize())
-			.queryParam("filters", getFilterParams(publisher, request))
-			.queryParam("offset", 0)
+			.queryParam("limit", limit)
+			.queryParam("filters", filters)
+			.queryParam("offset", offset)
 			.queryParam("sort", sorted.map(SearchReq.SortBy::getSort).orElse(null))
 			.queryParam("orderBy", sorted.map(SearchReq.SortBy::getOrderBy).orElse(null))
 			.queryParam("fields", "")
 			.build().toUri();
 	}
 
-	private Function<ResponseEntity<ResourceSetType>, SearchResultWrapper> applyResultAdditionalValues(PublisherRsp resource) {
-		return rsp -> {
-			var result = new SearchResultWrapper();
-			result.setResourceSetType(rsp.getBody());
-
-			Optional<String> totalElementsHeaderOptional = Optional.ofNullable(rsp.getHeaders().getFirst(ResourceClient.TOTAL_ELEMENTS_PAGINATION_HEADER));
-			result.setTotalElements(totalElementsHeaderOptional.map(Long::valueOf).orElse(0L));
-
-			result.setPublisher(resource);
-			return result;
-		};
+	private SearchResultWrapper wrap(PublisherRsp publisher, long offset, ResponseEntity<?> rsp) {
+		var result = new SearchResultWrapper();
+		result.setPublisher(publisher);
+		result.setOffset(offset);
+		if (rsp != null) {
+			result.setTotalElements(totalElements(rsp));
+		}
+		return result;
 	}
 
-	/**
-	 * e.g. subject='geometry' AND publishDate>'2017-01-01'
-	 * ?filter=subject%3D%27geometry%27%20AND%20publishDate%3E%272017%3D01%3D01%27
-	 *
-	 * @param filterObject
-	 * @return
-	 */
-	private String getFilterParams(PublisherRsp publisher, SearchReq filterObject) {
-		Set<String> processAsOrFields = Arrays.stream(filterObject.getClass().getDeclaredFields())
-			.filter(f -> Arrays.stream(f.getAnnotations()).anyMatch(AsOrSerializer.class::isInstance))
-			.map(Field::getName)
-			.collect(Collectors.toSet());
-
-		if (publisher.getName().equals(applicationConfiguration.getDufProviderName())) {
-			filterObject.setProviderType(ProviderType.DUF);
-		}
-		Map<String, ?> paramsMap = mapper.convertValue(filterObject, new TypeReference<Map<String, Object>>() {
-		});
-		String filterParam = paramsMap.entrySet()
-			.stream()
-			.map(e -> e.getKey().concat(processAsOrFields.contains(e.getKey()) ? "~'" : "='").concat(StringUtil.toIndentedString(e.getValue())).concat("'"))
-			.collect(Collectors.joining(" AND "));
-		String encodedFilterParams = UriUtils.encode(filterParam, StandardCharsets.UTF_8);
-		log.debug("{}: filter params: {} encoded: {}", publisher.getName(), filterParam, encodedFilterParams);
-		return encodedFilterParams;
+	private static long totalElements(ResponseEntity<?> rsp) {
+		Optional<String> totalElementsHeaderOptional = Optional.ofNullable(rsp.getHeaders().getFirst(ResourceClient.TOTAL_ELEMENTS_PAGINATION_HEADER));
+		return totalElementsHeaderOptional.map(Long::valueOf).orElse(0L);
 	}
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Caches search responses per publisher, so identical searches (e.g. a subject filter clicked from the landing page)
+ * are not sent to every publisher again.
+ */
+@Slf4j
+@Component
+public class SearchResponseCache {
+
+	public static final String CACHE_NAME = "search-response-cache";
+
+	private final boolean enabled;
+	private final Cache<Key, SearchResultWrapper> cache;
+
+	public SearchResponseCache(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+		ApplicationConfiguration.SearchCache config = applicationConfiguration.getSearchCache();
+		this.enabled = config.isEnabled();
+		this.cache = Caffeine.newBuilder()
+			.expireAfterWrite(config.getTtl())
+			.maximumSize(config.getMaximumSize())
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * @param loader calls the publisher, emits nothing for failed calls (which are not cached)
+	 */
+	public Mono<SearchResultWrapper> get(Key key, Supplier<Mono<SearchResultWrapper>> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		SearchResultWrapper cached = cache.getIfPresent(key);
+		if (cached != null) {
+			log.debug("Search response cache hit: {}", key);
+			return Mono.just(cached);
+		}
+		return loader.get().doOnNext(result -> cache.put(key, result));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPublisherChanged(PublisherChangedEvent event) {
+		cache.asMap().keySet().removeIf(key -> key.publisherId().equals(event.publisherId()));
+		log.debug("Search response cache invalidated for publisher: {}", event.publisherId());
+	}
+
+	/**
+	 * @param publisherId (decrypted) id of the publisher
+	 * @param filters     canonical filter expression sent to the publisher (nulls omitted, collections sorted)
+	 * @param sort        requested sorting
+	 * @param offset      requested offset
+	 * @param limit       requested number of items
+	 */
+	public record Key(Long publisherId, String filters, String sort, long offset, int limit) {
+	}
+}
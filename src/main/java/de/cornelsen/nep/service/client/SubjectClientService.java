@@ -32,9 +32,10 @@ import org.springframework.http.HttpEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Slf4j
@@ -43,19 +44,23 @@ import java.util.Objects;
 public class SubjectClientService extends ResourceClient {
 
 	private final ApplicationConfiguration applicationConfiguration;
+	private final InFlightRequests<String, SubjectSetType> inFlightSubjects = new InFlightRequests<>(() -> resourceClientMetrics.recordCoalesced(ResourceClientMetrics.Endpoint.SUBJECTS));
 
-	public List<SubjectType> subjects(List<PublisherRsp> publishers) {
-		List<SubjectSetType> response = Flux.fromIterable(publishers)
-			.flatMap(resource -> callAPI(
-				uri -> UriComponentsBuilder.fromHttpUrl(resource.getSearchUrl().concat(applicationConfiguration.getSubjectSuffix())).build().toUri(),
-				SubjectSetType.class, resource
-			).mapNotNull(HttpEntity::getBody))
-			.collectList()
-			.block();
-
-		if (response == null) {
-			return Collections.emptyList();
-		}
-		return response.stream().map(SubjectSetType::getSubjects).filter(Objects::nonNull).flatMap(List::stream).toList();
+	/**
+	 * Subjects per publisher id. Publishers which are unavailable or did not respond are missing in the result.
+	 */
+	public Mono<Map<Long, List<SubjectType>>> subjects(List<PublisherRsp> publishers) {
+		return Flux.fromIterable(publishers)
+			.filter(publisherHealthRegistry::isAvailable)
+			.flatMap(resource -> {
+				String url = resource.getSearchUrl().concat(applicationConfiguration.getSubjectSuffix());
+				//concurrent lookups (e.g. a refresh triggered while another one is running) share the call to the publisher
+				return inFlightSubjects.execute(url, () -> callAPI(
+					uri -> UriComponentsBuilder.fromHttpUrl(url).build().toUri(),
+					SubjectSetType.class, resource, ResourceClientMetrics.Endpoint.SUBJECTS
+				).mapNotNull(HttpEntity::getBody))
+					.map(rsp -> Map.entry(resource.getDecryptedId(), Objects.requireNonNullElse(rsp.getSubjects(), List.<SubjectType>of())));
+			})
+			.collectMap(Map.Entry::getKey, Map.Entry::getValue);
 	}
 }
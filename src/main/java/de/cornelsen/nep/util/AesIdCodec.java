@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.codec.Hex;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Id format version 2: {@value #PREFIX} followed by a single AES block holding the id and eight zero bytes,
+ * base64url encoded. The zero bytes are checked on decoding, so tampered values are rejected.
+ * A single hardware accelerated block instead of three DES passes over the decimal string.
+ */
+@Slf4j
+public class AesIdCodec implements IdCodec {
+
+	public static final String PREFIX = "v2";
+
+	private static final String TRANSFORMATION = "AES/ECB/NoPadding";
+	private static final int BLOCK_SIZE = 16;
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecretKey key;
+	private final BlockingQueue<Cipher> encryptors = new ArrayBlockingQueue<>(POOL_SIZE);
+	private final BlockingQueue<Cipher> decryptors = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	/**
+	 * @param hexKey 128, 192 or 256 bit AES key
+	 */
+	public AesIdCodec(String hexKey) {
+		this.key = new SecretKeySpec(Hex.decode(hexKey), "AES");
+		try {
+			Cipher.getInstance(TRANSFORMATION).init(Cipher.ENCRYPT_MODE, key);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Invalid AES key", e);
+		}
+	}
+
+	@Override
+	public String encode(Long id) {
+		if (id == null) {
+			return null;
+		}
+		try {
+			byte[] block = ByteBuffer.allocate(BLOCK_SIZE).putLong(id).array();
+			return PREFIX + ENCODER.encodeToString(doFinal(encryptors, Cipher.ENCRYPT_MODE, block));
+		} catch (Exception e) {
+			log.error(e.getMessage());
+			throw new IllegalArgumentException("errors.wrongValue");
+		}
+	}
+
+	@Override
+	public Long decode(String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			if (!value.startsWith(PREFIX)) {
+				throw new IllegalArgumentException("missing prefix");
+			}
+			byte[] encrypted = DECODER.decode(value.substring(PREFIX.length()));
+			if (encrypted.length != BLOCK_SIZE) {
+				throw new IllegalArgumentException("wrong length");
+			}
+			ByteBuffer block = ByteBuffer.wrap(doFinal(decryptors, Cipher.DECRYPT_MODE, encrypted));
+			long id = block.getLong();
+			if (block.getLong() != 0) {
+				throw new IllegalArgumentException("wrong padding");
+			}
+			return id;
+		} catch (Exception e) {
+			log.error("Unable to decrypt value: {}, due to: {}", value, e.getMessage());
+			throw new NoSuchElementException();
+		}
+	}
+
+	private byte[] doFinal(BlockingQueue<Cipher> pool, int mode, byte[] input) throws GeneralSecurityException {
+		Cipher cipher = pool.poll();
+		if (cipher == null) {
+			cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(mode, key);
+		}
+		byte[] output = cipher.doFinal(input);
+		pool.offer(cipher);
+		return output;
+	}
+}
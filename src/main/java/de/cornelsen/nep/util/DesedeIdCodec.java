@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.codec.Hex;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.DESedeKeySpec;
+import javax.crypto.spec.IvParameterSpec;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The original id format (version 1): hex encoded DESede of the decimal id.
+ * The key is set up once and initialized ciphers are reused, instead of creating both on every call.
+ */
+@Slf4j
+public class DesedeIdCodec implements IdCodec {
+
+	private static final String ALGORITHM = "DESede";
+	private static final Charset ENCODING = Charset.forName("ISO-8859-2");
+	private static final String TRANSFORMATION = "DESede/CBC/PKCS5Padding";
+	private static final IvParameterSpec IV = new IvParameterSpec(new byte[8]);
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+	private final SecretKey key;
+	//pooled instead of thread local, virtual threads would create a cipher per request
+	private final BlockingQueue<Cipher> encryptors = new ArrayBlockingQueue<>(POOL_SIZE);
+	private final BlockingQueue<Cipher> decryptors = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	public DesedeIdCodec(String hexKey) {
+		try {
+			this.key = SecretKeyFactory.getInstance(ALGORITHM).generateSecret(new DESedeKeySpec(Hex.decode(hexKey)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Invalid DESede key", e);
+		}
+	}
+
+	@Override
+	public String encode(Long id) {
+		if (id == null) {
+			return null;
+		}
+		try {
+			return String.valueOf(Hex.encode(doFinal(encryptors, Cipher.ENCRYPT_MODE, id.toString().getBytes(ENCODING))));
+		} catch (Exception e) {
+			log.error(e.getMessage());
+			throw new IllegalArgumentException("errors.wrongValue");
+		}
+	}
+
+	@Override
+	public Long decode(String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Long.parseLong(new String(doFinal(decryptors, Cipher.DECRYPT_MODE, Hex.decode(value)), ENCODING));
+		} catch (Exception e) {
+			log.error("Unable to decrypt value: {}, due to: {}", value, e.getMessage());
+			throw new NoSuchElementException();
+		}
+	}
+
+	private byte[] doFinal(BlockingQueue<Cipher> pool, int mode, byte[] input) throws GeneralSecurityException {
+		Cipher cipher = pool.poll();
+		if (cipher == null) {
+			cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(mode, key, IV);
+		}
+		//doFinal resets the cipher to its initialized state, after a failure it is dropped
+		byte[] output = cipher.doFinal(input);
+		pool.offer(cipher);
+		return output;
+	}
+}
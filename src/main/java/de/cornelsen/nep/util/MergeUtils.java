@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class MergeUtils {
+
+	private MergeUtils() {
+	}
+
+	/**
+	 * K-way merge of sorted runs, e.g. the (already sorted) search responses of every publisher.
+	 * Only the heads of the runs are kept in the heap and merging stops as soon as the requested window is filled,
+	 * so at most offset + limit items are ever compared. Equal items keep the order of the runs they come from.
+	 *
+	 * @param runs       lists sorted according to the comparator; a run in another order (e.g. a publisher with a different
+	 *                   collation) is taken in its own order, so the items taken from every run are always a prefix of it
+	 * @param comparator order of the merged result
+	 * @param offset     number of merged items to skip
+	 * @param limit      maximum number of items returned
+	 * @return window [offset, offset + limit) of the merged runs, along with the number of items taken from every run
+	 */
+	public static <T> MergeResult<T> mergeSorted(List<List<T>> runs, Comparator<? super T> comparator, long offset, int limit) {
+		PriorityQueue<Run<T>> heap = new PriorityQueue<>(Math.max(1, runs.size()), (left, right) -> {
+			int result = comparator.compare(left.head(), right.head());
+			return result != 0 ? result : Integer.compare(left.index, right.index);
+		});
+		for (int i = 0; i < runs.size(); i++) {
+			List<T> run = runs.get(i);
+			if (!run.isEmpty()) {
+				heap.add(new Run<>(i, run));
+			}
+		}
+
+		List<T> result = new ArrayList<>();
+		int[] consumed = new int[runs.size()];
+		long skipped = 0;
+		while (!heap.isEmpty() && result.size() < limit) {
+			Run<T> run = heap.poll();
+			T item = run.next();
+			consumed[run.index]++;
+			if (skipped < offset) {
+				skipped++;
+			} else {
+				result.add(item);
+			}
+			if (run.hasNext()) {
+				heap.add(run);
+			}
+		}
+		return new MergeResult<>(result, consumed);
+	}
+
+	/**
+	 * @param items    merged window
+	 * @param consumed number of items taken (skipped or returned) from every run, in the order of the given runs
+	 */
+	public record MergeResult<T>(List<T> items, int[] consumed) {
+	}
+
+	private static final class Run<T> {
+		private final int index;
+		private final List<T> items;
+		private int position;
+
+		private Run(int index, List<T> items) {
+			this.index = index;
+			this.items = items;
+		}
+
+		private T head() {
+			return items.get(position);
+		}
+
+		private T next() {
+			return items.get(position++);
+		}
+
+		private boolean hasNext() {
+			return position < items.size();
+		}
+	}
+}
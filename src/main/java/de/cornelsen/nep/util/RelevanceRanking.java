@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders the results of several publishers by relevance. Every publisher scores on its own scale, so scores are not
+ * compared across publishers but normalized to the rank of an item within the result of its publisher:
+ * the most relevant item of every publisher comes first, then the second ones and so on.
+ * The rank continues over pages, so the order does not depend on the window a publisher has been asked for.
+ */
+public class RelevanceRanking {
+
+	private RelevanceRanking() {
+	}
+
+	/**
+	 * @param runs       result of every publisher, in the order of the publisher (most relevant first)
+	 * @param startRanks rank of the first item of every run, i.e. the offset the publisher has been requested with
+	 * @param offset     number of merged items to skip
+	 * @param limit      maximum number of items returned
+	 * @see MergeUtils#mergeSorted(List, Comparator, long, int)
+	 */
+	public static <T> MergeUtils.MergeResult<T> merge(List<List<T>> runs, long[] startRanks, long offset, int limit) {
+		List<List<Ranked<T>>> rankedRuns = new ArrayList<>(runs.size());
+		for (int i = 0; i < runs.size(); i++) {
+			List<T> run = runs.get(i);
+			//just as many items as can be taken from the run
+			int size = (int) Math.min(run.size(), offset + limit);
+			List<Ranked<T>> rankedRun = new ArrayList<>(size);
+			for (int j = 0; j < size; j++) {
+				rankedRun.add(new Ranked<>(run.get(j), startRanks[i] + j));
+			}
+			rankedRuns.add(rankedRun);
+		}
+
+		MergeUtils.MergeResult<Ranked<T>> merged = MergeUtils.mergeSorted(rankedRuns, Comparator.comparingLong(Ranked::rank), offset, limit);
+		return new MergeUtils.MergeResult<>(merged.items().stream().map(Ranked::item).toList(), merged.consumed());
+	}
+
+	private record Ranked<T>(T item, long rank) {
+	}
+}
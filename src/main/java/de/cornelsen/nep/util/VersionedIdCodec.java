@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Encodes ids with the configured version and decodes all versions, so ids already exposed in bookmarks and URLs
+ * keep working while a new format is phased in. Version 1 values are plain hex, later versions carry a prefix.
+ * Hot ids are cached in both directions.
+ */
+public class VersionedIdCodec implements IdCodec {
+
+	private static final String LEGACY_KEY = "a8eb47c6194a8111ec1b90910242ac12000210242ac12001";
+
+	private final IdCodec legacy;
+	private final IdCodec aes;
+	private final IdCodec encoder;
+	@Getter
+	private final Cache<Long, String> encoded;
+	@Getter
+	private final Cache<String, Long> decoded;
+
+	/**
+	 * @param aes version 2 codec, null if not configured
+	 */
+	public VersionedIdCodec(IdCodec legacy, IdCodec aes, int version, long cacheSize) {
+		if (version == 2 && aes == null) {
+			throw new IllegalStateException("Id codec version 2 requires a key");
+		}
+		this.legacy = legacy;
+		this.aes = aes;
+		this.encoder = version == 2 ? aes : legacy;
+		this.encoded = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+		this.decoded = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+	}
+
+	/**
+	 * @param version version of encoded ids, all versions are decoded
+	 * @param aesKey  hex key of version 2, optional for version 1
+	 */
+	public static VersionedIdCodec create(int version, String aesKey, long cacheSize) {
+		return new VersionedIdCodec(new DesedeIdCodec(LEGACY_KEY), StringUtils.isBlank(aesKey) ? null : new AesIdCodec(aesKey), version, cacheSize);
+	}
+
+	@Override
+	public String encode(Long id) {
+		if (id == null) {
+			return null;
+		}
+		return encoded.get(id, key -> {
+			String value = encoder.encode(key);
+			decoded.put(value, key);
+			return value;
+		});
+	}
+
+	@Override
+	public Long decode(String value) {
+		if (value == null) {
+			return null;
+		}
+		//invalid values throw and are not cached
+		return decoded.get(value, key -> codec(key).decode(key));
+	}
+
+	private IdCodec codec(String value) {
+		if (value.startsWith(AesIdCodec.PREFIX)) {
+			if (aes == null) {
+				throw new NoSuchElementException();
+			}
+			return aes;
+		}
+		return legacy;
+	}
+}
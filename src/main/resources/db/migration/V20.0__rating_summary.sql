@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+CREATE TABLE rating_summaries
+(
+    publisher_id  bigint      not null,
+    item_id       varchar(36) not null,
+    votes1        bigint      not null default 0,
+    votes2        bigint      not null default 0,
+    votes3        bigint      not null default 0,
+    votes4        bigint      not null default 0,
+    votes5        bigint      not null default 0,
+    total         bigint      not null default 0,
+    empty_ratings bigint      not null default 0,
+    CONSTRAINT pk_rating_summaries PRIMARY KEY (publisher_id, item_id)
+);
+
+INSERT INTO rating_summaries (publisher_id, item_id, votes1, votes2, votes3, votes4, votes5, total, empty_ratings)
+SELECT publisher_id,
+       item_id,
+       count(*) filter (where rating = 1),
+       count(*) filter (where rating = 2),
+       count(*) filter (where rating = 3),
+       count(*) filter (where rating = 4),
+       count(*) filter (where rating = 5),
+       count(*),
+       count(*) filter (where text is null)
+FROM ratings
+GROUP BY publisher_id, item_id;
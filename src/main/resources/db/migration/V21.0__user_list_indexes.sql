@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2023 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+-- per-user lists are read newest first, id breaks ties of equal timestamps (keyset pagination)
+CREATE INDEX idx_favorites_user_created ON favorites (user_id, created_at desc, id desc);
+CREATE INDEX idx_history_search_user_created ON history_search (user_id, created_at desc, id desc);
+CREATE INDEX idx_history_subject_user_created ON history_subject (user_id, created_at desc, id desc);
+CREATE INDEX idx_ratings_user_modified ON ratings (user_id, modified_at desc, id desc);
+
+-- comments of an item filtered by rating, newest (modified) first
+CREATE INDEX idx_ratings_item_rating ON ratings (publisher_id, item_id, rating, modified_at desc, id desc);
@@ -20,14 +20,5 @@
  * SOFTWARE.
  */
 
-package de.cornelsen.nep.model.dto.rating;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
-@Data
-@AllArgsConstructor
-public class RatingStats {
-	private Short rate;
-	private Long total;
-}
+-- all comments of an item are read newest (modified) first by keyset, filtered by star they use idx_ratings_item_rating
+CREATE INDEX idx_ratings_item_modified ON ratings (publisher_id, item_id, modified_at desc, id desc);
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+-- the history is written by upserts, keyed by user and item (subject); duplicates of former concurrent clicks are removed
+DELETE
+FROM history_search h
+    USING history_search newer
+WHERE h.user_id = newer.user_id
+  AND h.publisher_id = newer.publisher_id
+  AND h.item_id = newer.item_id
+  AND (h.created_at, h.id) < (newer.created_at, newer.id);
+CREATE UNIQUE INDEX history_search_user_item_uniq ON history_search (user_id, publisher_id, item_id);
+
+DELETE
+FROM history_subject h
+    USING history_subject newer
+WHERE h.user_id = newer.user_id
+  AND h.key = newer.key
+  AND (h.created_at, h.id) < (newer.created_at, newer.id);
+CREATE UNIQUE INDEX history_subject_user_key_uniq ON history_subject (user_id, key);
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.model.dto.page;
+
+import de.cornelsen.nep.util.IdCodec;
+import de.cornelsen.nep.util.VersionedIdCodec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+	private final IdCodec idCodec = VersionedIdCodec.create(1, null, 100);
+
+	@Test
+	void positionSurvivesEncoding() {
+		LocalDateTime timestamp = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+		String token = new KeysetCursor(timestamp, 42L).encode(idCodec);
+
+		KeysetCursor cursor = KeysetCursor.decode(token, idCodec).orElseThrow();
+
+		assertThat(cursor.getTimestamp()).isEqualTo(timestamp);
+		assertThat(cursor.getId()).isEqualTo(42L);
+		//the internal id is not exposed
+		assertThat(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)).doesNotEndWith(";42");
+	}
+
+	@Test
+	void blankTokenStartsAtTheFirstPage() {
+		assertThat(KeysetCursor.decode(null, idCodec)).isEmpty();
+		assertThat(KeysetCursor.decode(" ", idCodec)).isEmpty();
+	}
+
+	@Test
+	void invalidTokensAreRejected() {
+		String id = idCodec.encode(42L);
+		for (String token : List.of("not base64!", token("1;2024-03-01T12:30"), token("2;2024-03-01T12:30;" + id), token("1;yesterday;" + id), token("1;2024-03-01T12:30;42"))) {
+			assertThatThrownBy(() -> KeysetCursor.decode(token, idCodec))
+				.as(token)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("errors.wrongValue");
+		}
+	}
+
+	@Test
+	void pageHandsOutPositionOfItsLastRow() {
+		KeysetPage<String> page = KeysetPage.of(List.of(1, 2, 3), 2, String::valueOf, rows -> rows.stream().map(row -> "row" + row).toList());
+
+		assertThat(page.getContent()).containsExactly("row1", "row2");
+		assertThat(page.getCursor()).isEqualTo("2");
+		assertThat(page.hasNext()).isTrue();
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		KeysetPage<String> page = KeysetPage.of(List.of(1, 2), 2, String::valueOf, rows -> rows.stream().map(String::valueOf).toList());
+		KeysetPage<String> empty = KeysetPage.of(List.<Integer>of(), 2, String::valueOf, rows -> rows.stream().map(String::valueOf).toList());
+
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getCursor()).isNull();
+		assertThat(page.hasNext()).isFalse();
+		assertThat(empty.getContent()).isEmpty();
+		assertThat(empty.getCursor()).isNull();
+	}
+
+	private static String token(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.model.dto.search;
+
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.util.IdCodec;
+import de.cornelsen.nep.util.VersionedIdCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchCursorTest {
+
+	private final IdCodec idCodec = VersionedIdCodec.create(1, null, 100);
+
+	@Test
+	void offsetsSurviveEncoding() {
+		Map<Long, Long> offsets = new LinkedHashMap<>();
+		offsets.put(1L, 10L);
+		offsets.put(2L, 0L);
+		String token = new SearchCursor("fingerprint", 3, offsets).encode(idCodec);
+
+		SearchCursor cursor = SearchCursor.decode(token, idCodec).orElseThrow();
+
+		assertThat(cursor.getFingerprint()).isEqualTo("fingerprint");
+		assertThat(cursor.getPage()).isEqualTo(3);
+		assertThat(cursor.getOffset(publisher(1L, "v2AAAA"))).isEqualTo(10L);
+		assertThat(cursor.getOffset(publisher(2L, "v2BBBB"))).isZero();
+		assertThat(cursor.getOffset(publisher(3L, "v2CCCC"))).isZero();
+	}
+
+	@Test
+	void offsetsDoNotDependOnTheIdFormat() {
+		SearchCursor cursor = SearchCursor.decode(new SearchCursor("fingerprint", 1, Map.of(1L, 10L)).encode(idCodec), idCodec).orElseThrow();
+
+		//the same publisher exposed with an id of another codec version
+		assertThat(cursor.getOffset(publisher(1L, "7ec58281c8f2753e"))).isEqualTo(10L);
+		assertThat(cursor.getOffset(publisher(1L, "v2AAAAAAAAAAAAAAAAAAAAAA"))).isEqualTo(10L);
+	}
+
+	@Test
+	void matchesRequestAndPage() {
+		PageRequest page = PageRequest.of(2, 20, Sort.by("publishDate"));
+		String fingerprint = SearchCursor.fingerprint("{\"search\":\"math\"}", page);
+		SearchCursor cursor = new SearchCursor(fingerprint, 2, Map.of());
+
+		assertThat(cursor.matches(fingerprint, page)).isTrue();
+		assertThat(cursor.matches(fingerprint, PageRequest.of(3, 20, Sort.by("publishDate")))).isFalse();
+		assertThat(cursor.matches(SearchCursor.fingerprint("{\"search\":\"math\"}", PageRequest.of(2, 10, Sort.by("publishDate"))), page)).isFalse();
+		assertThat(cursor.matches(SearchCursor.fingerprint("{\"search\":\"bio\"}", page), page)).isFalse();
+	}
+
+	@Test
+	void internalIdsAreNotExposed() {
+		String token = new SearchCursor("fingerprint", 1, Map.of(42L, 10L)).encode(idCodec);
+
+		assertThat(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)).isEqualTo("3;fingerprint;1;" + idCodec.encode(42L) + "=10");
+	}
+
+	@Test
+	void madeUpPublishersAreDropped() {
+		SearchCursor cursor = SearchCursor.decode(token("3;fingerprint;1;42=10," + idCodec.encode(1L) + "=5,7ec58281c8f2753f=3"), idCodec).orElseThrow();
+
+		assertThat(cursor.getOffsets()).containsExactly(Map.entry(1L, 5L));
+		assertThat(cursor.getOffset(publisher(42L, "id"))).isZero();
+	}
+
+	@Test
+	void invalidTokensAreIgnored() {
+		String id = idCodec.encode(1L);
+		assertThat(SearchCursor.decode(null, idCodec)).isEmpty();
+		assertThat(SearchCursor.decode("", idCodec)).isEmpty();
+		assertThat(SearchCursor.decode("not base64!", idCodec)).isEmpty();
+		assertThat(SearchCursor.decode(token("3;fingerprint;1"), idCodec)).isEmpty();
+		assertThat(SearchCursor.decode(token("3;fingerprint;x;" + id + "=1"), idCodec)).isEmpty();
+		assertThat(SearchCursor.decode(token("3;fingerprint;1;" + id), idCodec)).isEmpty();
+		//former versions were keyed by publisher ids as exposed or as stored
+		assertThat(SearchCursor.decode(token("1;fingerprint;1;7ec58281c8f2753e=10"), idCodec)).isEmpty();
+		assertThat(SearchCursor.decode(token("2;fingerprint;1;1=10"), idCodec)).isEmpty();
+	}
+
+	@Test
+	void negativeOffsetsAreClamped() {
+		SearchCursor cursor = SearchCursor.decode(token("3;fingerprint;1;" + idCodec.encode(1L) + "=-5"), idCodec).orElseThrow();
+
+		assertThat(cursor.getOffsets()).containsEntry(1L, 0L);
+		assertThat(cursor.getOffset(publisher(1L, "id"))).isZero();
+	}
+
+	private static String token(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static PublisherRsp publisher(Long decryptedId, String id) {
+		PublisherRsp publisher = new PublisherRsp();
+		publisher.setDecryptedId(decryptedId);
+		publisher.setId(id);
+		return publisher;
+	}
+}
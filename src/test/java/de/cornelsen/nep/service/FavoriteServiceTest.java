@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.mapper.FavoriteMapperImpl;
+import de.cornelsen.nep.model.dto.favorites.FavoriteOwnRsp;
+import de.cornelsen.nep.model.dto.favorites.FavoriteReq;
+import de.cornelsen.nep.model.dto.lti.ResourceSetType;
+import de.cornelsen.nep.model.dto.lti.ResourceType;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.dto.request.SearchReq;
+import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
+import de.cornelsen.nep.model.entity.Favorite;
+import de.cornelsen.nep.repository.FavoriteRepository;
+import de.cornelsen.nep.service.client.SearchClientService;
+import de.cornelsen.nep.util.VersionedIdCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FavoriteServiceTest {
+
+	private static final String USER = "user";
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	private final List<Favorite> favorites = new ArrayList<>();
+	private FavoriteService favoriteService;
+
+	@BeforeEach
+	void setUp() {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(new User(USER, "", List.of()), null));
+
+		FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+		when(favoriteRepository.findAllByUserIdOrderByCreatedAtDescIdDesc(eq(USER), any(Pageable.class)))
+			.thenAnswer(invocation -> favorites.stream().limit(invocation.<Pageable>getArgument(1).getPageSize()).toList());
+		when(favoriteRepository.findAllByUserIdBefore(eq(USER), any(LocalDateTime.class), any(Long.class), anyInt()))
+			.thenAnswer(invocation -> favorites.stream()
+				.filter(favorite -> favorite.getCreatedAt().isBefore(invocation.getArgument(1))
+					|| favorite.getCreatedAt().isEqual(invocation.getArgument(1)) && favorite.getId() < invocation.<Long>getArgument(2))
+				.limit(invocation.<Integer>getArgument(3))
+				.toList());
+
+		PublisherService publisherService = mock(PublisherService.class);
+		when(publisherService.getById(anySet())).thenAnswer(invocation -> invocation.<Set<Long>>getArgument(0).stream().map(FavoriteServiceTest::publisher).toList());
+
+		SearchClientService searchClientService = mock(SearchClientService.class);
+		when(searchClientService.searchById(any(Map.class), any(Pageable.class))).thenAnswer(invocation -> {
+			Map<PublisherRsp, SearchReq> requests = invocation.getArgument(0);
+			return Mono.just(requests.entrySet().stream().map(request -> {
+				//the publisher knows every item, the search matches names containing it
+				ResourceSetType resources = new ResourceSetType();
+				resources.setResources(request.getValue().getId().stream()
+					.filter(itemId -> request.getValue().getSearch() == null || name(request.getKey().getDecryptedId(), itemId).contains(request.getValue().getSearch()))
+					.sorted(Comparator.reverseOrder())
+					.map(itemId -> resource(request.getKey().getDecryptedId(), itemId))
+					.toList());
+				SearchResultWrapper wrapper = new SearchResultWrapper();
+				wrapper.setPublisher(request.getKey());
+				wrapper.setResourceSetType(resources);
+				return wrapper;
+			}).toList());
+		});
+
+		favoriteService = new FavoriteService(publisherService, searchClientService, VersionedIdCodec.create(1, null, 100), new FavoriteMapperImpl(), favoriteRepository, null);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void pagesKeepListOrderAcrossPublishers() {
+		//both publishers know item "a", the newest favorite comes first regardless of the publisher
+		favorite(1, 2L, "a");
+		favorite(2, 1L, "b");
+		favorite(3, 1L, "a");
+		favorite(4, 2L, "c");
+
+		KeysetPage<FavoriteOwnRsp> first = favoriteService.getFavorites(new FavoriteReq(), null, 3);
+		KeysetPage<FavoriteOwnRsp> second = favoriteService.getFavorites(new FavoriteReq(), first.getCursor(), 3);
+
+		assertThat(first.getContent()).extracting(FavoriteOwnRsp::getName).containsExactly("2/a", "1/b", "1/a");
+		assertThat(first.getCursor()).isNotNull();
+		assertThat(second.getContent()).extracting(FavoriteOwnRsp::getName).containsExactly("2/c");
+		assertThat(second.getCursor()).isNull();
+	}
+
+	@Test
+	void filterIsAppliedBeforeThePageIsCut() {
+		for (int i = 1; i <= 10; i++) {
+			favorite(i, 1L, (i % 4 == 0 ? "match-" : "other-") + i);
+		}
+
+		FavoriteReq req = new FavoriteReq();
+		req.setSearch("match");
+		KeysetPage<FavoriteOwnRsp> first = favoriteService.getFavorites(req, null, 1);
+		KeysetPage<FavoriteOwnRsp> second = favoriteService.getFavorites(req, first.getCursor(), 1);
+		KeysetPage<FavoriteOwnRsp> third = favoriteService.getFavorites(req, second.getCursor(), 1);
+
+		assertThat(first.getContent()).extracting(FavoriteOwnRsp::getName).containsExactly("1/match-4");
+		assertThat(second.getContent()).extracting(FavoriteOwnRsp::getName).containsExactly("1/match-8");
+		assertThat(third.getContent()).isEmpty();
+		assertThat(third.getCursor()).isNull();
+	}
+
+	@Test
+	void scanStopsAfterMaxPages() {
+		//five pages of two are scanned per request
+		for (int i = 1; i <= 10; i++) {
+			favorite(i, 1L, "other-" + i);
+		}
+		favorite(11, 1L, "match-11");
+
+		FavoriteReq req = new FavoriteReq();
+		req.setSearch("match");
+		KeysetPage<FavoriteOwnRsp> first = favoriteService.getFavorites(req, null, 2);
+		KeysetPage<FavoriteOwnRsp> second = favoriteService.getFavorites(req, first.getCursor(), 2);
+
+		assertThat(first.getContent()).isEmpty();
+		assertThat(first.getCursor()).isNotNull();
+		assertThat(second.getContent()).extracting(FavoriteOwnRsp::getName).containsExactly("1/match-11");
+		assertThat(second.getCursor()).isNull();
+	}
+
+	/**
+	 * Favorites are added in list order, newest first.
+	 */
+	private void favorite(long id, Long publisherId, String itemId) {
+		Favorite favorite = new Favorite();
+		favorite.setId(id);
+		favorite.setPublisherId(publisherId);
+		favorite.setItemId(itemId);
+		favorite.setUserId(USER);
+		favorite.setCreatedAt(NOW.minusMinutes(id));
+		favorites.add(favorite);
+	}
+
+	private static PublisherRsp publisher(Long id) {
+		PublisherRsp publisher = new PublisherRsp();
+		publisher.setDecryptedId(id);
+		publisher.setName("publisher " + id);
+		return publisher;
+	}
+
+	private static ResourceType resource(Long publisherId, String itemId) {
+		ResourceType resource = new ResourceType();
+		resource.setId(itemId);
+		resource.setName(name(publisherId, itemId));
+		return resource;
+	}
+
+	private static String name(Long publisherId, String itemId) {
+		return publisherId + "/" + itemId;
+	}
+}
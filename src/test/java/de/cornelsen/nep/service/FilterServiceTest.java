@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.model.dto.SubjectRsp;
+import de.cornelsen.nep.model.dto.lti.SubjectType;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.dto.search.Subject;
+import de.cornelsen.nep.service.client.SubjectClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FilterServiceTest {
+
+	private SubjectClientService subjectClientService;
+	private FilterService filterService;
+
+	@BeforeEach
+	void setUp() {
+		PublisherRsp publisher = new PublisherRsp();
+		publisher.setDecryptedId(1L);
+		PublisherService publisherService = mock(PublisherService.class);
+		when(publisherService.getActivePublishers()).thenReturn(List.of(publisher));
+		subjectClientService = mock(SubjectClientService.class);
+		filterService = new FilterService(subjectClientService, publisherService, Schedulers.immediate());
+	}
+
+	@Test
+	void firstRequestDoesNotWaitForSubjects() {
+		Sinks.One<Map<Long, List<SubjectType>>> subjects = Sinks.one();
+		when(subjectClientService.subjects(anyList())).thenReturn(subjects.asMono());
+
+		assertThat(filterService.getFiltersList().getSubjects()).allMatch(group -> group.getItems().isEmpty());
+		//requests during the load do not start another one
+		assertThat(filterService.getFiltersList().getSubjects()).allMatch(group -> group.getItems().isEmpty());
+		verify(subjectClientService, times(1)).subjects(anyList());
+
+		subjects.tryEmitValue(Map.of(1L, List.of(subject(Subject.DEUTSCH))));
+
+		assertThat(filterService.getFiltersList().getSubjects()).map(SubjectRsp::getItems).contains(List.of(Subject.DEUTSCH));
+	}
+
+	@Test
+	void failedLoadIsRetriedByTheNextRequest() {
+		when(subjectClientService.subjects(anyList())).thenReturn(Mono.error(new IllegalStateException("unavailable")))
+			.thenReturn(Mono.just(Map.of(1L, List.of(subject(Subject.DEUTSCH)))));
+
+		assertThat(filterService.getFiltersList().getSubjects()).allMatch(group -> group.getItems().isEmpty());
+		assertThat(filterService.getFiltersList().getSubjects()).allMatch(group -> group.getItems().isEmpty());
+		verify(subjectClientService, times(2)).subjects(anyList());
+		assertThat(filterService.getFiltersList().getSubjects()).map(SubjectRsp::getItems).contains(List.of(Subject.DEUTSCH));
+	}
+
+	@Test
+	void refreshRequestedWhileRefreshingRunsAgain() {
+		Sinks.One<Map<Long, List<SubjectType>>> first = Sinks.one();
+		when(subjectClientService.subjects(anyList())).thenReturn(first.asMono())
+			.thenReturn(Mono.just(Map.of(1L, List.of(subject(Subject.MUSIK)))));
+
+		filterService.refresh();
+		filterService.refresh();
+		first.tryEmitValue(Map.of(1L, List.of(subject(Subject.DEUTSCH))));
+
+		verify(subjectClientService, times(2)).subjects(anyList());
+		assertThat(filterService.getFiltersList().getSubjects()).map(SubjectRsp::getItems).contains(List.of(Subject.MUSIK));
+	}
+
+	private static SubjectType subject(Subject subject) {
+		SubjectType subjectType = new SubjectType();
+		subjectType.setName(subject.getLtiValue());
+		return subjectType;
+	}
+}
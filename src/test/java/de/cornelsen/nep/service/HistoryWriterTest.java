@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.repository.HistorySearchRepository;
+import de.cornelsen.nep.repository.HistorySubjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class HistoryWriterTest {
+
+	private HistorySearchRepository historySearchRepository;
+	private HistorySubjectRepository historySubjectRepository;
+	private ApplicationConfiguration configuration;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		historySearchRepository = mock(HistorySearchRepository.class);
+		historySubjectRepository = mock(HistorySubjectRepository.class);
+		configuration = new ApplicationConfiguration();
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void mergesRepeatedClicksUntilFlushed() {
+		HistoryWriter writer = writer();
+		LocalDateTime before = LocalDateTime.now();
+		writer.recordSearch("user", 1L, "a");
+		writer.recordSearch("user", 1L, "b");
+		writer.recordSearch("user", 1L, "a");
+		writer.recordSearch("other", 1L, "a");
+		verify(historySearchRepository, never()).upsert(any(), any(), any(), any());
+
+		writer.flush();
+
+		ArgumentCaptor<List<String>> userIds = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<List<Long>> publisherIds = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<List<String>> itemIds = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<List<LocalDateTime>> createdAts = ArgumentCaptor.forClass(List.class);
+		verify(historySearchRepository).upsert(userIds.capture(), publisherIds.capture(), itemIds.capture(), createdAts.capture());
+		assertThat(rows(userIds.getValue(), itemIds.getValue())).containsExactlyInAnyOrder("user/a", "user/b", "other/a");
+		assertThat(publisherIds.getValue()).containsOnly(1L);
+		assertThat(createdAts.getValue()).hasSize(3).allMatch(createdAt -> !createdAt.isBefore(before));
+		assertThat(counter("search", "merged")).isEqualTo(1);
+		assertThat(counter("search", "buffered")).isEqualTo(3);
+
+		writer.flush();
+		verify(historySearchRepository, times(1)).upsert(any(), any(), any(), any());
+		verify(historySubjectRepository, never()).upsert(any(), any(), any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void flushesInBatches() {
+		configuration.getHistory().setBatchSize(2);
+		HistoryWriter writer = writer();
+		for (int i = 0; i < 5; i++) {
+			writer.recordSubject("user", "subject" + i);
+		}
+
+		writer.flush();
+
+		ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+		verify(historySubjectRepository, times(3)).upsert(anyList(), keys.capture(), anyList());
+		assertThat(keys.getAllValues()).extracting(List::size).containsExactlyInAnyOrder(2, 2, 1);
+		assertThat(keys.getAllValues().stream().flatMap(List::stream)).containsExactlyInAnyOrder("subject0", "subject1", "subject2", "subject3", "subject4");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void requeuesFailedBatch() {
+		HistoryWriter writer = writer();
+		writer.recordSubject("user", "math");
+		writer.recordSubject("user", "art");
+		doThrow(new IllegalStateException("connection refused")).doNothing().when(historySubjectRepository).upsert(anyList(), anyList(), anyList());
+
+		writer.flush();
+
+		assertThat(meterRegistry.get(HistoryWriter.METRIC_PREFIX + ".failed").tag("type", "subject").counter().count()).isEqualTo(2);
+		assertThat(pending("subject")).isEqualTo(2);
+
+		writer.flush();
+
+		ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+		verify(historySubjectRepository, times(2)).upsert(anyList(), keys.capture(), anyList());
+		assertThat(keys.getValue()).containsExactlyInAnyOrder("math", "art");
+		assertThat(pending("subject")).isZero();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void writesRightAwayOnceTheBufferIsFull() {
+		configuration.getHistory().setCapacity(2);
+		HistoryWriter writer = writer();
+		writer.recordSubject("user", "math");
+		writer.recordSubject("user", "art");
+
+		writer.recordSubject("user", "music");
+		//pending keys are still merged
+		writer.recordSubject("user", "math");
+
+		ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+		verify(historySubjectRepository).upsert(anyList(), keys.capture(), anyList());
+		assertThat(keys.getValue()).containsExactly("music");
+		assertThat(counter("subject", "overflow")).isEqualTo(1);
+		assertThat(counter("subject", "merged")).isEqualTo(1);
+		assertThat(pending("subject")).isEqualTo(2);
+	}
+
+	@Test
+	void failedClicksAreDroppedWhenTheBufferIsFull() {
+		configuration.getHistory().setCapacity(1);
+		HistoryWriter writer = writer();
+		writer.recordSubject("user", "math");
+		doThrow(new IllegalStateException("connection refused")).when(historySubjectRepository).upsert(anyList(), anyList(), anyList());
+
+		writer.recordSubject("user", "art");
+
+		assertThat(meterRegistry.get(HistoryWriter.METRIC_PREFIX + ".failed").tag("type", "subject").counter().count()).isEqualTo(1);
+		assertThat(pending("subject")).isEqualTo(1);
+	}
+
+	@Test
+	void badClickIsDroppedWithoutBlockingTheBatch() {
+		HistoryWriter writer = writer();
+		List<String> written = new ArrayList<>();
+		doAnswer(invocation -> {
+			List<String> keys = invocation.getArgument(1);
+			if (keys.contains("bad")) {
+				throw new DataIntegrityViolationException("value too long for type character varying(100)");
+			}
+			written.addAll(keys);
+			return null;
+		}).when(historySubjectRepository).upsert(anyList(), anyList(), anyList());
+		for (int i = 0; i < 5; i++) {
+			writer.recordSubject("user", "subject" + i);
+		}
+		writer.recordSubject("user", "bad");
+
+		writer.flush();
+
+		assertThat(written).containsExactlyInAnyOrder("subject0", "subject1", "subject2", "subject3", "subject4");
+		assertThat(meterRegistry.get(HistoryWriter.METRIC_PREFIX + ".dropped").tag("type", "subject").counter().count()).isEqualTo(1);
+		assertThat(pending("subject")).isZero();
+
+		writer.flush();
+		assertThat(written).hasSize(5);
+	}
+
+	@Test
+	void writesRightAwayWithoutWriteBehind() {
+		configuration.getHistory().setWriteBehind(false);
+		HistoryWriter writer = writer();
+
+		writer.recordSearch("user", 1L, "a");
+
+		verify(historySearchRepository).upsert(eq(List.of("user")), eq(List.of(1L)), eq(List.of("a")), anyList());
+		assertThat(pending("search")).isZero();
+	}
+
+	@Test
+	void shutdownFlushesPendingClicks() {
+		HistoryWriter writer = writer();
+		writer.recordSearch("user", 1L, "a");
+		writer.recordSubject("user", "math");
+
+		writer.shutdown();
+
+		verify(historySearchRepository).upsert(anyList(), anyList(), anyList(), anyList());
+		verify(historySubjectRepository).upsert(anyList(), anyList(), anyList());
+	}
+
+	private HistoryWriter writer() {
+		return new HistoryWriter(historySearchRepository, historySubjectRepository, configuration, meterRegistry);
+	}
+
+	private double counter(String type, String result) {
+		return meterRegistry.get(HistoryWriter.METRIC_PREFIX + ".clicks").tags("type", type, "result", result).counter().count();
+	}
+
+	private double pending(String type) {
+		return meterRegistry.get(HistoryWriter.METRIC_PREFIX + ".pending").tag("type", type).gauge().value();
+	}
+
+	private static List<String> rows(List<String> userIds, List<String> itemIds) {
+		return IntStream.range(0, userIds.size()).mapToObj(i -> userIds.get(i) + "/" + itemIds.get(i)).toList();
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.mapper.PublisherMapper;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.entity.Publisher;
+import de.cornelsen.nep.model.entity.enums.PublisherStatus;
+import de.cornelsen.nep.repository.PublisherRepository;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PublisherRegistryTest {
+
+	@Test
+	void reloadStartedBeforeAChangeDoesNotReplaceTheLaterOne() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch changed = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+		PublisherRepository publisherRepository = mock(PublisherRepository.class);
+		when(publisherRepository.findAllByStatusIsOrderByName(PublisherStatus.ACTIVE)).thenAnswer(invocation -> {
+			if (loads.getAndIncrement() == 0) {
+				//the first reload reads the publishers before the change and finishes last
+				loading.countDown();
+				assertThat(changed.await(5, TimeUnit.SECONDS)).isTrue();
+				return List.of(publisher(1L, "old"));
+			}
+			return List.of(publisher(1L, "new"));
+		});
+		when(publisherRepository.findAll()).thenReturn(List.of(publisher(1L, "new")));
+		PublisherMapper publisherMapper = mock(PublisherMapper.class);
+		when(publisherMapper.toDto(any(Publisher.class))).thenAnswer(invocation -> {
+			Publisher publisher = invocation.getArgument(0);
+			PublisherRsp rsp = new PublisherRsp();
+			rsp.setDecryptedId(publisher.getId());
+			rsp.setName(publisher.getName());
+			return rsp;
+		});
+		PublisherRegistry publisherRegistry = new PublisherRegistry(publisherRepository, publisherMapper);
+
+		CompletableFuture<Void> stale = CompletableFuture.runAsync(publisherRegistry::reconcile);
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		publisherRegistry.onPublisherChanged(new PublisherChangedEvent(1L));
+		changed.countDown();
+		stale.get(5, TimeUnit.SECONDS);
+
+		assertThat(publisherRegistry.getActivePublishers()).extracting(PublisherRsp::getName).containsExactly("new");
+	}
+
+	private static Publisher publisher(Long id, String name) {
+		Publisher publisher = new Publisher();
+		publisher.setId(id);
+		publisher.setName(name);
+		publisher.setStatus(PublisherStatus.ACTIVE);
+		return publisher;
+	}
+}
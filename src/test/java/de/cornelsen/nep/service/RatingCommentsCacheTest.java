@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.page.KeysetPage;
+import de.cornelsen.nep.model.dto.rating.RatingRsp;
+import de.cornelsen.nep.service.event.RatingChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingCommentsCacheTest {
+
+	private static final RatingCommentsCache.Item ITEM = new RatingCommentsCache.Item(1L, "item");
+
+	private final RatingCommentsCache cache = new RatingCommentsCache(new ApplicationConfiguration(), new SimpleMeterRegistry());
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void pagesAreCachedPerStarFilter() {
+		KeysetPage<RatingRsp.Comment> all = cache.get(ITEM, new RatingCommentsCache.Variant(Set.of()), this::load);
+		KeysetPage<RatingRsp.Comment> fiveStars = cache.get(ITEM, new RatingCommentsCache.Variant(Set.of((short) 5)), this::load);
+
+		assertThat(cache.get(ITEM, new RatingCommentsCache.Variant(Set.of()), this::load)).isSameAs(all);
+		assertThat(cache.get(ITEM, new RatingCommentsCache.Variant(Set.of((short) 5)), this::load)).isSameAs(fiveStars);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void ratingChangeDropsThePagesOfTheItem() {
+		KeysetPage<RatingRsp.Comment> other = cache.get(new RatingCommentsCache.Item(2L, "item"), new RatingCommentsCache.Variant(Set.of()), this::load);
+		cache.get(ITEM, new RatingCommentsCache.Variant(Set.of()), this::load);
+
+		cache.onRatingChanged(new RatingChangedEvent(1L, "item"));
+
+		cache.get(ITEM, new RatingCommentsCache.Variant(Set.of()), this::load);
+		assertThat(cache.get(new RatingCommentsCache.Item(2L, "item"), new RatingCommentsCache.Variant(Set.of()), this::load)).isSameAs(other);
+		assertThat(loads).hasValue(3);
+	}
+
+	private KeysetPage<RatingRsp.Comment> load() {
+		loads.incrementAndGet();
+		return new KeysetPage<>(List.of(), 10, null);
+	}
+}
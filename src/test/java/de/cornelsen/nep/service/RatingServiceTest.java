@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service;
+
+import de.cornelsen.nep.mapper.IdMapper;
+import de.cornelsen.nep.mapper.RatingMapperImpl;
+import de.cornelsen.nep.model.dto.rating.RatingCreateReq;
+import de.cornelsen.nep.model.dto.rating.RatingEditReq;
+import de.cornelsen.nep.model.entity.Rating;
+import de.cornelsen.nep.repository.RatingRepository;
+import de.cornelsen.nep.repository.RatingSummaryRepository;
+import de.cornelsen.nep.service.client.SearchClientService;
+import de.cornelsen.nep.util.IdCodec;
+import de.cornelsen.nep.util.VersionedIdCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingServiceTest {
+
+	private static final String USER = "user";
+	private static final Long PUBLISHER_ID = 7L;
+	private static final IdCodec ID_CODEC = VersionedIdCodec.create(1, null, 100);
+
+	private RatingRepository ratingRepository;
+	private RatingSummaryRepository ratingSummaryRepository;
+	private RatingService ratingService;
+
+	@BeforeEach
+	void setUp() {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(new User(USER, "", List.of()), null));
+		ratingRepository = mock(RatingRepository.class);
+		ratingSummaryRepository = mock(RatingSummaryRepository.class);
+		RatingMapperImpl ratingMapper = new RatingMapperImpl();
+		ReflectionTestUtils.setField(ratingMapper, "idMapper", new IdMapper(ID_CODEC));
+		ratingService = new RatingService(mock(PublisherService.class), mock(SearchClientService.class), ID_CODEC, ratingMapper, ratingRepository,
+			ratingSummaryRepository, mock(RatingCommentsCache.class), mock(ApplicationEventPublisher.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void newRatingIsAddedToTheSummary() {
+		RatingCreateReq req = new RatingCreateReq();
+		req.setPublisherId(ID_CODEC.encode(PUBLISHER_ID));
+		req.setItemId("item");
+		req.setRating((short) 4);
+		when(ratingRepository.findByPublisherIdAndItemIdAndUserId(PUBLISHER_ID, "item", USER)).thenReturn(Optional.empty());
+
+		ratingService.rateItem(req);
+
+		verify(ratingSummaryRepository).add(PUBLISHER_ID, "item", (short) 4, true, 1);
+	}
+
+	@Test
+	void editedRatingIsMovedWithinTheSummary() {
+		Rating rating = rating(1L, (short) 4, null);
+		RatingEditReq req = new RatingEditReq();
+		req.setId(ID_CODEC.encode(rating.getId()));
+		req.setRating((short) 2);
+		req.setText("too short");
+
+		ratingService.editItemRate(req);
+
+		verify(ratingSummaryRepository).move(PUBLISHER_ID, "item", (short) 4, true, (short) 2, false);
+		verify(ratingSummaryRepository, never()).add(any(), any(), anyShort(), anyBoolean(), anyInt());
+	}
+
+	@Test
+	void deletedRatingIsRemovedFromTheSummary() {
+		Rating rating = rating(2L, (short) 5, "great");
+
+		ratingService.deleteItemRate(ID_CODEC.encode(rating.getId()));
+
+		verify(ratingSummaryRepository).add(PUBLISHER_ID, "item", (short) 5, false, -1);
+	}
+
+	private Rating rating(Long id, short stars, String text) {
+		Rating rating = new Rating();
+		rating.setId(id);
+		rating.setPublisherId(PUBLISHER_ID);
+		rating.setItemId("item");
+		rating.setUserId(USER);
+		rating.setRating(stars);
+		rating.setText(text);
+		when(ratingRepository.findById(id)).thenReturn(Optional.of(rating));
+		return rating;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonArrayDecoderTest {
+
+	private static final String RESPONSE = """
+		{"totalElements": 3, "meta": {"resources": [{"id": "nested", "tags": []}]},
+		 "resources": [{"id": "a", "tags": ["Übung", "{]"]}, null, {"id": "b\\"]", "tags": [[]]}, {"id": "c", "tags": null}],
+		 "after": [{"id": "skipped", "tags": []}]}""";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void decodesElementsOfTheRootField() {
+		List<Resource> resources = decode(RESPONSE, Resource.class, RESPONSE.length());
+
+		assertThat(resources).extracting(Resource::id).containsExactly("a", "b\"]", "c");
+		assertThat(resources.get(0).tags()).containsExactly("Übung", "{]");
+	}
+
+	@Test
+	void resultDoesNotDependOnChunkBoundaries() {
+		List<Resource> expected = decode(RESPONSE, Resource.class, RESPONSE.length());
+		//chunks also split the multibyte character
+		for (int chunkSize = 1; chunkSize < 40; chunkSize++) {
+			assertThat(decode(RESPONSE, Resource.class, chunkSize)).as("chunk size %d", chunkSize).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void elementsAreReturnedAsSoonAsTheyAreComplete() {
+		JsonArrayDecoder<Resource> decoder = new JsonArrayDecoder<>(mapper, "resources", Resource.class);
+
+		assertThat(decoder.decode(buffer("{\"resources\": [{\"id\": \"a\", \"tags\": []}, {\"id\""))).extracting(Resource::id).containsExactly("a");
+		assertThat(decoder.decode(buffer(": \"b\", \"tags\": []}"))).extracting(Resource::id).containsExactly("b");
+		assertThat(decoder.decode(buffer("]}"))).isEmpty();
+		assertThat(decoder.complete()).isEmpty();
+	}
+
+	@Test
+	void decodesScalarElementsAndMissingFields() {
+		assertThat(decode("{\"resources\": [\"a\", 1, null, \"c\"]}", String.class, 3)).containsExactly("a", "1", "c");
+		assertThat(decode("{\"other\": [\"a\"]}", String.class, 3)).isEmpty();
+		assertThat(decode("{\"resources\": null}", String.class, 3)).isEmpty();
+	}
+
+	@Test
+	void malformedResponseFails() {
+		assertThatThrownBy(() -> decode("{\"resources\": [{\"id\": }]}", Resource.class, 5)).hasRootCauseInstanceOf(JsonProcessingException.class);
+	}
+
+	private <T> List<T> decode(String json, Class<T> type, int chunkSize) {
+		JsonArrayDecoder<T> decoder = new JsonArrayDecoder<>(mapper, "resources", type);
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		List<T> result = new ArrayList<>();
+		for (int from = 0; from < bytes.length; from += chunkSize) {
+			result.addAll(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + chunkSize)))));
+		}
+		result.addAll(decoder.complete());
+		return result;
+	}
+
+	private static DataBuffer buffer(String chunk) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+	}
+
+	record Resource(String id, List<Object> tags) {
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.cornelsen.nep.model.dto.request.SearchReq;
+import de.cornelsen.nep.model.dto.search.ProviderType;
+import de.cornelsen.nep.model.dto.search.Subject;
+import de.cornelsen.nep.serializer.AsOrSerializer;
+import de.cornelsen.nep.util.StringUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LtiFilterEncoderTest {
+
+	private static final String CHARACTERS = "aZ09 \"'~*%&=+-_.,;()[]{}\\/\n\tÄöüß€😀";
+
+	private final ObjectMapper mapper = new ObjectMapper()
+		.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+		.disable(SerializationFeature.FAIL_ON_SELF_REFERENCES)
+		.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+		.registerModule(new JavaTimeModule());
+
+	private final LtiFilterEncoder encoder = new LtiFilterEncoder();
+
+	@Test
+	void encodesFilterExpression() {
+		SearchReq request = new SearchReq();
+		request.setSearch("Satz Pythagoras");
+		request.setSubject(Set.of(Subject.values()[0]));
+		request.setPublishDate(LocalDate.of(2017, 1, 1));
+
+		String filter = UriUtils.decode(encoder.encode(request, ProviderType.DEFAULT), StandardCharsets.UTF_8);
+
+		assertThat(filter).isEqualTo("search='Satz,Pythagoras' AND subject~'%s' AND publishDate='[2017, 1, 1]'".formatted(Subject.values()[0]));
+		assertThat(encoder.encode(new SearchReq(), ProviderType.DEFAULT)).isEmpty();
+	}
+
+	@Test
+	void searchIsPassedAsDufFieldToDufProviders() {
+		SearchReq request = new SearchReq();
+		request.setSearch("Geometrie");
+
+		assertThat(UriUtils.decode(encoder.encode(request, ProviderType.DUF), StandardCharsets.UTF_8)).isEqualTo("search='Geometrie' AND name='Geometrie'");
+		assertThat(UriUtils.decode(encoder.encode(request, ProviderType.DEFAULT), StandardCharsets.UTF_8)).isEqualTo("search='Geometrie'");
+	}
+
+	@Test
+	void matchesReflectiveJacksonEncoding() throws ReflectiveOperationException {
+		Random random = new Random(7);
+		for (int round = 0; round < 2_000; round++) {
+			SearchReq request = new SearchReq();
+			fill(request, random);
+			ProviderType providerType = random.nextBoolean() ? ProviderType.DUF : ProviderType.DEFAULT;
+
+			String expected = legacy(request, providerType);
+
+			assertThat(encoder.encode(request, providerType)).as("round %d: %s", round, request).isEqualTo(expected);
+		}
+	}
+
+	/**
+	 * Filter expression as encoded before, by the Jackson mapping of the request.
+	 */
+	private String legacy(SearchReq request, ProviderType providerType) {
+		Set<String> processAsOrFields = Arrays.stream(request.getClass().getDeclaredFields())
+			.filter(f -> Arrays.stream(f.getAnnotations()).anyMatch(AsOrSerializer.class::isInstance))
+			.map(Field::getName)
+			.collect(Collectors.toSet());
+
+		request.setProviderType(providerType);
+		Map<String, ?> paramsMap = mapper.convertValue(request, new TypeReference<Map<String, Object>>() {
+		});
+		String filterParam = paramsMap.entrySet()
+			.stream()
+			.map(e -> e.getKey().concat(processAsOrFields.contains(e.getKey()) ? "~'" : "='").concat(StringUtil.toIndentedString(e.getValue())).concat("'"))
+			.collect(Collectors.joining(" AND "));
+		return UriUtils.encode(filterParam, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Sets every field (the unwrapped learning objectives included) to a random value or leaves it null.
+	 */
+	private static void fill(Object target, Random random) throws ReflectiveOperationException {
+		for (Field field : target.getClass().getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers()) || field.getType() == ProviderType.class || random.nextInt(3) == 0) {
+				continue;
+			}
+			field.setAccessible(true);
+			field.set(target, value(field, random));
+		}
+	}
+
+	private static Object value(Field field, Random random) throws ReflectiveOperationException {
+		Class<?> type = field.getType();
+		if (type == String.class) {
+			return string(random);
+		}
+		if (type == LocalDate.class) {
+			return LocalDate.ofEpochDay(random.nextInt(30_000));
+		}
+		if (type.isEnum()) {
+			return constant(type, random);
+		}
+		if (type == Set.class) {
+			Class<?> elementType = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+			Set<Object> values = new HashSet<>();
+			for (int i = random.nextInt(4); i > 0; i--) {
+				values.add(elementType == String.class ? string(random) : constant(elementType, random));
+			}
+			return values;
+		}
+		Object nested = type.getDeclaredConstructor().newInstance();
+		fill(nested, random);
+		return nested;
+	}
+
+	private static Object constant(Class<?> type, Random random) {
+		Object[] constants = type.getEnumConstants();
+		return constants[random.nextInt(constants.length)];
+	}
+
+	private static String string(Random random) {
+		int[] codePoints = CHARACTERS.codePoints().toArray();
+		StringBuilder value = new StringBuilder();
+		if (random.nextInt(4) == 0) {
+			//quoted phrases of the search field
+			value.append('"');
+		}
+		for (int i = random.nextInt(12); i > 0; i--) {
+			value.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+		}
+		if (random.nextInt(4) == 0) {
+			value.append('"');
+		}
+		return value.toString();
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.service.event.PublisherChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublisherHealthRegistryTest {
+
+	private static final long FAST = Duration.ofMillis(100).toNanos();
+	private static final long SLOW = Duration.ofSeconds(5).toNanos();
+	private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+	private SimpleMeterRegistry meterRegistry;
+	private PublisherHealthRegistry healthRegistry;
+	private PublisherRsp publisher;
+
+	@BeforeEach
+	void setUp() {
+		ApplicationConfiguration configuration = new ApplicationConfiguration();
+		configuration.getCircuitBreaker().setOpenDuration(OPEN_DURATION);
+		meterRegistry = new SimpleMeterRegistry();
+		healthRegistry = new PublisherHealthRegistry(configuration, meterRegistry);
+		publisher = new PublisherRsp();
+		publisher.setDecryptedId(1L);
+		publisher.setName("publisher");
+	}
+
+	@Test
+	void opensOnceEnoughCallsFailed() {
+		for (int i = 0; i < 9; i++) {
+			healthRegistry.onFailure(publisher, FAST);
+		}
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.CLOSED);
+		assertThat(healthRegistry.tryAcquire(publisher)).isTrue();
+
+		healthRegistry.onFailure(publisher, FAST);
+
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.OPEN);
+		assertThat(healthRegistry.isAvailable(publisher)).isFalse();
+		assertThat(healthRegistry.tryAcquire(publisher)).isFalse();
+	}
+
+	@Test
+	void staysClosedBelowTheFailureRate() {
+		for (int i = 0; i < 20; i++) {
+			healthRegistry.onSuccess(publisher, FAST);
+			if (i % 3 == 0) {
+				healthRegistry.onFailure(publisher, FAST);
+			}
+		}
+
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.CLOSED);
+	}
+
+	@Test
+	void opensOnSlowCalls() {
+		for (int i = 0; i < 2; i++) {
+			healthRegistry.onSuccess(publisher, FAST);
+		}
+		for (int i = 0; i < 7; i++) {
+			healthRegistry.onSuccess(publisher, SLOW);
+		}
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.CLOSED);
+
+		healthRegistry.onSuccess(publisher, SLOW);
+
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.OPEN);
+	}
+
+	@Test
+	void successfulTrialClosesTheCircuit() throws InterruptedException {
+		open();
+		Thread.sleep(OPEN_DURATION.multipliedBy(2).toMillis());
+
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.HALF_OPEN);
+		assertThat(healthRegistry.tryAcquire(publisher)).isTrue();
+		//just a single trial call
+		assertThat(healthRegistry.tryAcquire(publisher)).isFalse();
+
+		healthRegistry.onSuccess(publisher, FAST);
+
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.CLOSED);
+		//the failures before opening are forgotten
+		healthRegistry.onFailure(publisher, FAST);
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.CLOSED);
+	}
+
+	@Test
+	void failedTrialOpensTheCircuitAgain() throws InterruptedException {
+		open();
+		Thread.sleep(OPEN_DURATION.multipliedBy(2).toMillis());
+		assertThat(healthRegistry.tryAcquire(publisher)).isTrue();
+
+		healthRegistry.onFailure(publisher, FAST);
+
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.OPEN);
+		assertThat(healthRegistry.tryAcquire(publisher)).isFalse();
+	}
+
+	@Test
+	void timeoutAdaptsToRecentCallDurations() {
+		assertThat(healthRegistry.timeout(publisher)).isEqualTo(Duration.ofSeconds(10));
+
+		for (int i = 0; i < 10; i++) {
+			healthRegistry.onSuccess(publisher, Duration.ofMillis(1500).toNanos());
+		}
+		assertThat(healthRegistry.timeout(publisher)).isEqualTo(Duration.ofSeconds(3));
+
+		for (int i = 0; i < 50; i++) {
+			healthRegistry.onSuccess(publisher, FAST);
+		}
+		assertThat(healthRegistry.timeout(publisher)).isEqualTo(Duration.ofSeconds(1));
+
+		healthRegistry.onSuccess(publisher, Duration.ofSeconds(8).toNanos());
+		assertThat(healthRegistry.timeout(publisher)).isEqualTo(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void changedPublisherStartsOver() {
+		open();
+		assertThat(meterRegistry.get("publisher.circuit.state").tag("publisher", "publisher").gauge().value()).isEqualTo(2);
+
+		healthRegistry.onPublisherChanged(new PublisherChangedEvent(1L));
+
+		assertThat(meterRegistry.find("publisher.circuit.state").gauges()).isEmpty();
+		assertThat(healthRegistry.tryAcquire(publisher)).isTrue();
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.CLOSED);
+	}
+
+	private void open() {
+		for (int i = 0; i < 10; i++) {
+			healthRegistry.onFailure(publisher, FAST);
+		}
+		assertThat(state()).isEqualTo(PublisherHealthRegistry.State.OPEN);
+	}
+
+	private PublisherHealthRegistry.State state() {
+		return PublisherHealthRegistry.State.values()[(int) meterRegistry.get("publisher.circuit.state").tag("publisher", "publisher").gauge().value()];
+	}
+}
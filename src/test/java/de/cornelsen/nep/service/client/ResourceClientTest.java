@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.service.client;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResourceClientTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private PublisherHealthRegistry healthRegistry;
+	private PublisherRsp publisher;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		healthRegistry = new PublisherHealthRegistry(new ApplicationConfiguration(), meterRegistry);
+		publisher = new PublisherRsp();
+		publisher.setDecryptedId(1L);
+		publisher.setName("slow");
+	}
+
+	@Test
+	void callCancelledByTheBudgetIsRecordedAsFailed() {
+		TestClient client = client(Duration.ofSeconds(5));
+
+		for (int i = 0; i < new ApplicationConfiguration.CircuitBreaker().getMinimumCalls(); i++) {
+			assertThat(client.getWithinBudget(publisher, Duration.ofMillis(50)).block()).isNull();
+		}
+
+		Timer cancelled = meterRegistry.find("publisher.requests").tag("status", "cancelled").timer();
+		assertThat(cancelled).isNotNull();
+		assertThat(cancelled.count()).isEqualTo(10);
+		//the call starts slightly after the budget timer, hence some tolerance
+		assertThat(cancelled.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10 * 40);
+		assertThat(meterRegistry.find("publisher.requests").tag("status", "2xx").timer()).isNull();
+		assertThat(healthRegistry.isAvailable(publisher)).isFalse();
+	}
+
+	@Test
+	void callCancelledByTheCallerDoesNotAffectTheHealth() {
+		TestClient client = client(Duration.ofSeconds(5));
+
+		for (int i = 0; i < new ApplicationConfiguration.CircuitBreaker().getMinimumCalls(); i++) {
+			assertThat(client.get(publisher).take(Duration.ofMillis(20)).block()).isNull();
+		}
+
+		assertThat(meterRegistry.find("publisher.requests").tag("status", "cancelled").timer().count()).isEqualTo(10);
+		assertThat(healthRegistry.isAvailable(publisher)).isTrue();
+		//the short durations do not lower the adaptive timeout
+		assertThat(healthRegistry.timeout(publisher)).isEqualTo(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void callCompletedWithinTheBudgetIsRecordedOnce() {
+		TestClient client = client(Duration.ZERO);
+
+		ResponseEntity<String> rsp = client.getWithinBudget(publisher, Duration.ofSeconds(5)).block();
+
+		assertThat(rsp).isNotNull();
+		assertThat(meterRegistry.find("publisher.requests").tag("status", "2xx").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.find("publisher.requests").tag("status", "cancelled").timer()).isNull();
+	}
+
+	@Test
+	void completedCallIsRecordedOnce() {
+		TestClient client = client(Duration.ZERO);
+
+		ResponseEntity<String> rsp = client.get(publisher).block();
+
+		assertThat(rsp).isNotNull();
+		assertThat(rsp.getBody()).isEqualTo("ok");
+		assertThat(meterRegistry.find("publisher.requests").tag("status", "2xx").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.find("publisher.requests").tag("status", "cancelled").timer()).isNull();
+	}
+
+	@Test
+	void requestReturnsErrorResponseWithStatus() {
+		TestClient client = client(Duration.ZERO, HttpStatus.INTERNAL_SERVER_ERROR);
+
+		ResponseEntity<String> rsp = client.request(publisher).block();
+
+		assertThat(rsp).isNotNull();
+		assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(rsp.getBody()).isNull();
+	}
+
+	@Test
+	void requestFailsOnTimeout() {
+		ApplicationConfiguration configuration = new ApplicationConfiguration();
+		configuration.setRequestTimeout(1);
+		healthRegistry = new PublisherHealthRegistry(configuration, meterRegistry);
+		TestClient client = client(Duration.ofSeconds(5));
+
+		assertThatThrownBy(() -> client.request(publisher).block())
+			.isInstanceOfSatisfying(ResponseStatusException.class, ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+		assertThat(client.get(publisher).block()).extracting(ResponseEntity::getBody).isNull();
+	}
+
+	@Test
+	void requestFailsOnOpenCircuit() {
+		TestClient client = client(Duration.ZERO);
+		for (int i = 0; i < new ApplicationConfiguration.CircuitBreaker().getMinimumCalls(); i++) {
+			healthRegistry.onFailure(publisher, 0);
+		}
+
+		assertThatThrownBy(() -> client.request(publisher).block())
+			.isInstanceOfSatisfying(ResponseStatusException.class, ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(client.get(publisher).block()).extracting(ResponseEntity::getBody).isNull();
+	}
+
+	private TestClient client(Duration responseDelay) {
+		return client(responseDelay, HttpStatus.OK);
+	}
+
+	private TestClient client(Duration responseDelay, HttpStatus status) {
+		WebClient webClient = WebClient.builder()
+			.exchangeFunction(request -> Mono.delay(responseDelay).map(i -> ClientResponse.create(status)
+				.header("Content-Type", "application/json")
+				.body("\"ok\"")
+				.build()))
+			.build();
+		TestClient client = new TestClient();
+		ReflectionTestUtils.setField(client, "webClient", webClient);
+		ReflectionTestUtils.setField(client, "publisherHealthRegistry", healthRegistry);
+		ReflectionTestUtils.setField(client, "resourceClientMetrics", new ResourceClientMetrics(meterRegistry));
+		return client;
+	}
+
+	private static class TestClient extends ResourceClient {
+
+		Mono<ResponseEntity<String>> get(PublisherRsp publisher) {
+			return callAPI(uriBuilder -> URI.create("http://publisher/resources"), String.class, publisher, ResourceClientMetrics.Endpoint.SEARCH);
+		}
+
+		Mono<ResponseEntity<String>> getWithinBudget(PublisherRsp publisher, Duration budget) {
+			return withinBudget(get(publisher).flux(), budget).next();
+		}
+
+		Mono<ResponseEntity<String>> request(PublisherRsp publisher) {
+			return requestAPI(uriBuilder -> URI.create("http://publisher/resources/1"), String.class, publisher, ResourceClientMetrics.Endpoint.DETAILS);
+		}
+	}
+}
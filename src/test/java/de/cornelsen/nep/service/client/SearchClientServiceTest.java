@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package de.cornelsen.nep.service.client;
+
+import de.cornelsen.nep.configuration.ApplicationConfiguration;
+import de.cornelsen.nep.model.dto.lti.ResourceType;
+import de.cornelsen.nep.model.dto.publisher.PublisherRsp;
+import de.cornelsen.nep.model.dto.request.SearchReq;
+import de.cornelsen.nep.model.dto.search.SearchResultWrapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchClientServiceTest {
+
+	private final List<Map<String, String>> requests = new ArrayList<>();
+	private SearchClientService searchClientService;
+	private PublisherRsp publisher;
+
+	@BeforeEach
+	void setUp() {
+		ApplicationConfiguration configuration = new ApplicationConfiguration();
+		configuration.setSearchSuffix("/search");
+		configuration.setDufProviderName("duf");
+		configuration.setSearchBudget(Duration.ofMillis(10));
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+		//the publisher answers after the search budget, with more items than requested
+		WebClient webClient = WebClient.builder()
+			.exchangeFunction(request -> {
+				requests.add(UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().toSingleValueMap());
+				return Mono.delay(Duration.ofMillis(100)).map(i -> ClientResponse.create(HttpStatus.OK)
+					.header("Content-Type", "application/json")
+					.body("{\"resources\":[{\"id\":\"a\"},{\"id\":\"b\"},{\"id\":\"c\"}]}")
+					.build());
+			})
+			.build();
+		searchClientService = new SearchClientService(configuration, null, new LtiFilterEncoder(), null);
+		ReflectionTestUtils.setField(searchClientService, "webClient", webClient);
+		ReflectionTestUtils.setField(searchClientService, "publisherHealthRegistry", new PublisherHealthRegistry(configuration, meterRegistry));
+		ReflectionTestUtils.setField(searchClientService, "resourceClientMetrics", new ResourceClientMetrics(meterRegistry));
+
+		publisher = new PublisherRsp();
+		publisher.setDecryptedId(1L);
+		publisher.setName("publisher");
+		publisher.setSearchUrl("http://publisher");
+	}
+
+	@Test
+	void lookupByIdAsksForExactlyTheIdsAndIgnoresTheSearchBudget() {
+		SearchReq request = new SearchReq();
+		request.setId(Set.of("a", "b"));
+
+		List<SearchResultWrapper> results = searchClientService.searchById(Map.of(publisher, request), PageRequest.ofSize(20)).block();
+
+		assertThat(requests).singleElement().satisfies(params -> {
+			assertThat(params).containsEntry("limit", "2");
+			assertThat(params).containsEntry("offset", "0");
+		});
+		assertThat(results).singleElement().satisfies(result -> {
+			assertThat(result.getPublisher()).isSameAs(publisher);
+			assertThat(result.getResourceSetType().getResources()).extracting(ResourceType::getId).containsExactly("a", "b");
+		});
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MergeUtilsTest {
+
+	private static final Comparator<Item> BY_VALUE = Comparator.comparingInt(Item::value);
+
+	@Test
+	void mergesWindowOfSortedRuns() {
+		List<List<Integer>> runs = List.of(List.of(1, 4, 7), List.of(2, 5, 8), List.of(3, 6, 9));
+
+		MergeUtils.MergeResult<Integer> result = MergeUtils.mergeSorted(runs, Comparator.naturalOrder(), 2, 4);
+
+		assertThat(result.items()).containsExactly(3, 4, 5, 6);
+		assertThat(result.consumed()).containsExactly(2, 2, 2);
+	}
+
+	@Test
+	void equalItemsKeepTheOrderOfTheRuns() {
+		List<List<Item>> runs = List.of(
+			List.of(new Item(1, 0), new Item(2, 0)),
+			List.of(new Item(1, 1), new Item(2, 1)),
+			List.of(new Item(1, 2)));
+
+		List<Item> items = MergeUtils.mergeSorted(runs, BY_VALUE, 0, 10).items();
+
+		assertThat(items).containsExactly(new Item(1, 0), new Item(1, 1), new Item(1, 2), new Item(2, 0), new Item(2, 1));
+	}
+
+	@Test
+	void unsortedRunsKeepTheirOrder() {
+		List<Integer> unsorted = List.of(5, 1, 3);
+
+		MergeUtils.MergeResult<Integer> result = MergeUtils.mergeSorted(List.of(unsorted, List.of(2, 4)), Comparator.naturalOrder(), 0, 3);
+
+		assertThat(result.items()).containsExactly(2, 4, 5);
+		assertThat(result.consumed()).containsExactly(1, 2);
+	}
+
+	@Test
+	void pagingThroughUnsortedRunReturnsEveryItemOnce() {
+		//e.g. a publisher sorting alphabetically with another collation
+		List<List<Integer>> publishers = List.of(List.of(5, 1, 3, 7), List.of(2, 4, 6));
+		int[] offsets = new int[publishers.size()];
+		List<Integer> paged = new ArrayList<>();
+		for (int page = 0; page < 10; page++) {
+			List<List<Integer>> runs = new ArrayList<>();
+			for (int run = 0; run < publishers.size(); run++) {
+				List<Integer> items = publishers.get(run);
+				runs.add(items.subList(Math.min(offsets[run], items.size()), Math.min(offsets[run] + 2, items.size())));
+			}
+
+			MergeUtils.MergeResult<Integer> result = MergeUtils.mergeSorted(runs, Comparator.naturalOrder(), 0, 2);
+
+			paged.addAll(result.items());
+			for (int run = 0; run < offsets.length; run++) {
+				offsets[run] += result.consumed()[run];
+			}
+		}
+
+		assertThat(paged).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6, 7);
+	}
+
+	@Test
+	void emptyRunsAndWindowsBeyondTheEnd() {
+		List<List<Integer>> runs = List.of(List.of(), List.of(1, 2), List.of());
+
+		assertThat(MergeUtils.mergeSorted(runs, Comparator.naturalOrder(), 0, 10).consumed()).containsExactly(0, 2, 0);
+		assertThat(MergeUtils.mergeSorted(runs, Comparator.naturalOrder(), 5, 10).items()).isEmpty();
+		assertThat(MergeUtils.mergeSorted(runs, Comparator.naturalOrder(), 0, 0).consumed()).containsExactly(0, 0, 0);
+		assertThat(MergeUtils.mergeSorted(List.<List<Integer>>of(), Comparator.naturalOrder(), 0, 10).items()).isEmpty();
+	}
+
+	@Test
+	void matchesStableSortOfAllRuns() {
+		Random random = new Random(42);
+		for (int round = 0; round < 500; round++) {
+			List<List<Item>> runs = new ArrayList<>();
+			List<Item> all = new ArrayList<>();
+			int runCount = random.nextInt(6);
+			for (int run = 0; run < runCount; run++) {
+				int index = run;
+				List<Item> items = IntStream.range(0, random.nextInt(15)).mapToObj(i -> new Item(random.nextInt(10), index)).sorted(BY_VALUE).toList();
+				runs.add(items);
+				all.addAll(items);
+			}
+			all.sort(BY_VALUE);
+			int offset = random.nextInt(all.size() + 3);
+			int limit = random.nextInt(20);
+
+			MergeUtils.MergeResult<Item> result = MergeUtils.mergeSorted(runs, BY_VALUE, offset, limit);
+
+			List<Item> expected = all.subList(Math.min(offset, all.size()), Math.min(offset + limit, all.size()));
+			assertThat(result.items()).isEqualTo(expected);
+			//items taken per run are exactly the ones up to the end of the window, none for an empty window
+			List<Item> taken = limit == 0 ? List.of() : all.subList(0, Math.min(offset + limit, all.size()));
+			for (int run = 0; run < runCount; run++) {
+				int index = run;
+				assertThat(result.consumed()[run]).isEqualTo((int) taken.stream().filter(item -> item.run() == index).count());
+			}
+			if (result.items().size() < limit) {
+				assertThat(result.consumed()).containsExactly(runs.stream().mapToInt(List::size).toArray());
+			}
+		}
+	}
+
+	private record Item(int value, int run) {
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import de.cornelsen.nep.model.dto.search.ResourceTypeDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelevanceRankingTest {
+
+	@Test
+	void interleavesPublishersByRankNotByScore() {
+		//publisher a scores in hundreds, publisher b below 1
+		List<ResourceTypeDto> a = List.of(item("a1", 300f), item("a2", 200f), item("a3", 100f));
+		List<ResourceTypeDto> b = List.of(item("b1", 0.9f), item("b2", 0.5f));
+
+		MergeUtils.MergeResult<ResourceTypeDto> result = RelevanceRanking.merge(List.of(a, b), new long[]{0, 0}, 0, 10);
+
+		assertThat(ids(result)).containsExactly("a1", "b1", "a2", "b2", "a3");
+		assertThat(result.consumed()).containsExactly(3, 2);
+	}
+
+	@Test
+	void ranksFollowTheOrderOfThePublisher() {
+		//the order of the publisher is kept, so the items taken stay a prefix of its result
+		List<ResourceTypeDto> a = List.of(item("a2", 2f), item("a3", null), item("a1", 3f));
+		List<ResourceTypeDto> b = List.of(item("b1", 50f));
+
+		MergeUtils.MergeResult<ResourceTypeDto> result = RelevanceRanking.merge(List.of(a, b), new long[]{0, 0}, 0, 2);
+
+		assertThat(ids(result)).containsExactly("a2", "b1");
+		assertThat(result.consumed()).containsExactly(1, 1);
+	}
+
+	@Test
+	void ranksContinueOverPages() {
+		//a has been requested from offset 2, b from the start: the first item of b outranks the third of a
+		List<ResourceTypeDto> a = List.of(item("a3", 10f), item("a4", 5f));
+		List<ResourceTypeDto> b = List.of(item("b1", 0.9f), item("b2", 0.8f), item("b3", 0.7f), item("b4", 0.6f));
+
+		MergeUtils.MergeResult<ResourceTypeDto> result = RelevanceRanking.merge(List.of(a, b), new long[]{2, 0}, 0, 4);
+
+		assertThat(ids(result)).containsExactly("b1", "b2", "a3", "b3");
+		assertThat(result.consumed()).containsExactly(1, 3);
+	}
+
+	@Test
+	void skipsOffsetAcrossPublishers() {
+		List<ResourceTypeDto> a = List.of(item("a1", 3f), item("a2", 2f), item("a3", 1f));
+		List<ResourceTypeDto> b = List.of(item("b1", 3f), item("b2", 2f), item("b3", 1f));
+
+		MergeUtils.MergeResult<ResourceTypeDto> result = RelevanceRanking.merge(List.of(a, b), new long[]{0, 0}, 2, 2);
+
+		assertThat(ids(result)).containsExactly("a2", "b2");
+		assertThat(result.consumed()).containsExactly(2, 2);
+	}
+
+	private static List<String> ids(MergeUtils.MergeResult<ResourceTypeDto> result) {
+		return result.items().stream().map(ResourceTypeDto::getId).toList();
+	}
+
+	private static ResourceTypeDto item(String id, Float relevance) {
+		ResourceTypeDto item = new ResourceTypeDto();
+		item.setId(id);
+		item.setRelevance(relevance);
+		return item;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023-2024 Cornelsen Verlag GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.cornelsen.nep.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VersionedIdCodecTest {
+
+	private static final String AES_KEY = "000102030405060708090a0b0c0d0e0f";
+
+	//issued by the DESede CryptoUtils before the codec was introduced
+	private static final Map<Long, String> LEGACY_IDS = Map.of(
+		1L, "7ec58281c8f2753e",
+		42L, "b85c6e6789ea03b7",
+		123456789L, "2034eeb95592fc12a19f37c0f613ddb4",
+		Long.MAX_VALUE, "9d9277467bb5d0c4cb01f16449bbcbd3d3e8755cff167ca2"
+	);
+
+	private final VersionedIdCodec v1 = VersionedIdCodec.create(1, null, 100);
+	private final VersionedIdCodec v1WithKey = VersionedIdCodec.create(1, AES_KEY, 100);
+	private final VersionedIdCodec v2 = VersionedIdCodec.create(2, AES_KEY, 100);
+
+	@Test
+	void legacyIdsAreDecodedByAllVersions() {
+		LEGACY_IDS.forEach((id, value) -> {
+			assertThat(v1.decode(value)).isEqualTo(id);
+			assertThat(v2.decode(value)).isEqualTo(id);
+		});
+	}
+
+	@Test
+	void version1EncodesLegacyIds() {
+		LEGACY_IDS.forEach((id, value) -> {
+			assertThat(v1.encode(id)).isEqualTo(value);
+			assertThat(v1WithKey.encode(id)).isEqualTo(value);
+		});
+	}
+
+	@Test
+	void bothVersionsRoundTrip() {
+		for (long id : new long[]{0L, 1L, 42L, 123456789L, Long.MAX_VALUE}) {
+			assertThat(v1.decode(v1.encode(id))).isEqualTo(id);
+			String encoded = v2.encode(id);
+			assertThat(encoded).startsWith(AesIdCodec.PREFIX);
+			assertThat(v2.decode(encoded)).isEqualTo(id);
+			//configured with the key, version 1 already accepts ids of version 2, so a rollback keeps them working
+			assertThat(v1WithKey.decode(encoded)).isEqualTo(id);
+		}
+	}
+
+	@Test
+	void nullIsPassedThrough() {
+		assertThat(v2.encode(null)).isNull();
+		assertThat(v2.decode(null)).isNull();
+	}
+
+	@Test
+	void version2RequiresKey() {
+		assertThatThrownBy(() -> VersionedIdCodec.create(2, null, 100)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void invalidValuesAreRejected() {
+		String encoded = v2.encode(42L);
+		String tampered = encoded.substring(0, encoded.length() - 2) + (encoded.endsWith("AA") ? "BB" : "AA");
+
+		assertThatThrownBy(() -> v1.decode(encoded)).isInstanceOf(NoSuchElementException.class);
+		assertThatThrownBy(() -> v2.decode(tampered)).isInstanceOf(NoSuchElementException.class);
+		assertThatThrownBy(() -> v2.decode("not-an-id")).isInstanceOf(NoSuchElementException.class);
+	}
+}